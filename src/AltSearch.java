@@ -0,0 +1,229 @@
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * Point-to-point cheapest-path search with A* guided by landmark lower bounds
+ * (ALT: A*, landmarks, triangle inequality).
+ *
+ * Preprocessing picks k landmarks and stores, for every landmark L and node v,
+ * the distances d(L, v) and d(v, L). For any target t the triangle inequality
+ * then gives two lower bounds on d(v, t), namely d(L, t) - d(L, v) and
+ * d(v, L) - d(t, L); the largest over all landmarks is a consistent A*
+ * heuristic, so each node is settled at most once and the search can stop as
+ * soon as the target is settled. Good landmarks lie "behind" the targets, so
+ * they are picked by farthest selection: each new landmark is the node
+ * farthest from those already picked.
+ * <p>
+ * Distances are stored as ints (8 bytes per node and landmark); distances
+ * that do not fit are treated as unknown and give no bound. Like
+ * {@link ShortestPathSearch}, an instance reuses its query state through
+ * version stamps; create one per graph and thread.
+ */
+public final class AltSearch {
+
+    private static final int UNKNOWN = Integer.MAX_VALUE;
+
+    private final EdgeCursor cursor;
+    private final int[] landmarks;
+    private final int[][] from; // from[i][v] = d(landmarks[i], v)
+    private final int[][] to;   // to[i][v] = d(v, landmarks[i])
+
+    private final IntDaryHeap heap;
+    private final long[] dist;
+    private final long[] bound;
+    private final int[] parent;
+    private final int[] stamp; // dist/bound/parent of v are valid iff stamp[v] == epoch
+    private int epoch;
+    private int target;
+    private long cost = ShortestPathSearch.UNREACHABLE;
+    private int settled;
+
+    /**
+     * Preprocess a graph with the given number of landmarks, building its
+     * transpose index.
+     *
+     * @param graph graph to search
+     * @param numLandmarks number of landmarks to pick
+     * @throws IllegalArgumentException if numLandmarks is negative or the graph has
+     *         a negative edge weight
+     */
+    public AltSearch(GraphView graph, int numLandmarks) {
+        this(graph, CsrGraph.transposeOf(graph), numLandmarks);
+    }
+
+    /**
+     * Preprocess a graph with an existing transpose index, such as
+     * {@link Graph#getReverse()}. Fewer landmarks are picked if the graph runs
+     * out of useful candidates. Neither view may change while this instance is
+     * in use.
+     *
+     * @param graph graph to search
+     * @param reverse transpose of graph
+     * @param numLandmarks number of landmarks to pick
+     * @throws IllegalArgumentException if numLandmarks is negative, the graph has a
+     *         negative edge weight or the two views differ in size
+     */
+    public AltSearch(GraphView graph, GraphView reverse, int numLandmarks) {
+        if (numLandmarks < 0) throw new IllegalArgumentException("Negative landmark count " + numLandmarks);
+        int numNodes = graph.getNumNodes();
+        if (numNodes != reverse.getNumNodes() || graph.getNumEdges() != reverse.getNumEdges()) {
+            throw new IllegalArgumentException("Reverse index does not match the graph");
+        }
+        this.cursor = graph.newCursor();
+
+        // Farthest selection: each landmark's forward search also scores the next
+        // candidate, so these searches run one after another
+        ShortestPathSearch search = ShortestPathSearch.create(graph);
+        int[] picked = new int[Math.min(numLandmarks, numNodes)];
+        int[][] forward = new int[picked.length][];
+        long[] nearest = new long[numNodes]; // min over landmarks of d(L, v)
+        Arrays.fill(nearest, ShortestPathSearch.UNREACHABLE);
+        int count = 0;
+        int next = -1;
+        if (picked.length > 0) {
+            next = farthest(search.distancesFrom(0));
+            if (next < 0) next = 0; // node 0 reaches nothing: start from it anyway
+        }
+        while (next >= 0 && count < picked.length) {
+            long[] d = search.distancesFrom(next);
+            picked[count] = next;
+            forward[count++] = toInts(d);
+            for (int v = 0; v < numNodes; v++) nearest[v] = Math.min(nearest[v], d[v]);
+            next = farthest(nearest);
+        }
+        this.landmarks = Arrays.copyOf(picked, count);
+        this.from = Arrays.copyOf(forward, count);
+
+        // Backward distances are independent per landmark
+        this.to = new int[count][];
+        IntStream.range(0, count).parallel().forEach(i ->
+                to[i] = toInts(ShortestPathSearch.create(reverse).distancesFrom(landmarks[i])));
+
+        this.heap = new IntDaryHeap(numNodes);
+        this.dist = new long[numNodes];
+        this.bound = new long[numNodes];
+        this.parent = new int[numNodes];
+        this.stamp = new int[numNodes];
+    }
+
+    // Node with the largest finite distance that is not yet a landmark, or -1
+    private static int farthest(long[] d) {
+        int best = -1;
+        for (int v = 0; v < d.length; v++) {
+            if (d[v] != ShortestPathSearch.UNREACHABLE && d[v] > 0 && (best < 0 || d[v] > d[best])) {
+                best = v;
+            }
+        }
+        return best;
+    }
+
+    private static int[] toInts(long[] d) {
+        int[] result = new int[d.length];
+        for (int v = 0; v < d.length; v++) {
+            result[v] = d[v] < UNKNOWN ? (int) d[v] : UNKNOWN;
+        }
+        return result;
+    }
+
+    /**
+     * Get the landmarks picked during preprocessing.
+     *
+     * @return landmark node indices in the order they were picked
+     */
+    public int[] getLandmarks() {
+        return landmarks.clone();
+    }
+
+    /**
+     * Find a minimum-cost path from start to end. Its cost is available
+     * afterwards from {@link #getCost()}.
+     *
+     * @param start start node index
+     * @param end destination node index
+     * @return node indices of a cheapest path (start first), or null if end is unreachable
+     */
+    public int[] findCheapestPath(int start, int end) {
+        if (++epoch == 0) { // stamps wrapped around: forget them all
+            Arrays.fill(stamp, 0);
+            epoch = 1;
+        }
+        heap.clear();
+        target = end;
+        cost = ShortestPathSearch.UNREACHABLE;
+        settled = 0;
+
+        label(start, 0, -1);
+        while (!heap.isEmpty()) {
+            int u = heap.poll();
+            settled++;
+            if (u == end) {
+                cost = dist[end];
+                break;
+            }
+
+            long du = dist[u];
+            cursor.reset(u);
+            while (cursor.next()) {
+                int v = cursor.getTo();
+                long nd = du + cursor.getWeight();
+                if (stamp[v] != epoch || nd < dist[v]) label(v, nd, u);
+            }
+        }
+        if (cost == ShortestPathSearch.UNREACHABLE) return null;
+
+        int length = 1;
+        for (int v = end; v != start; v = parent[v]) length++;
+        int[] path = new int[length];
+        for (int v = end, i = length - 1; i >= 0; v = parent[v], i--) {
+            path[i] = v;
+        }
+        return path;
+    }
+
+    private void label(int v, long d, int p) {
+        if (stamp[v] != epoch) {
+            stamp[v] = epoch;
+            bound[v] = lowerBound(v, target);
+        }
+        dist[v] = d;
+        parent[v] = p;
+        heap.insertOrDecrease(v, d + bound[v]);
+    }
+
+    /**
+     * Lower bound on the cost of any path from one node to another, from the
+     * landmark distances alone.
+     *
+     * @param v start node index
+     * @param t destination node index
+     * @return a value no larger than the cheapest path cost from v to t
+     */
+    public long lowerBound(int v, int t) {
+        long best = 0;
+        for (int i = 0; i < landmarks.length; i++) {
+            int[] f = from[i];
+            if (f[t] != UNKNOWN && f[v] != UNKNOWN) best = Math.max(best, (long) f[t] - f[v]);
+            int[] b = to[i];
+            if (b[v] != UNKNOWN && b[t] != UNKNOWN) best = Math.max(best, (long) b[v] - b[t]);
+        }
+        return best;
+    }
+
+    /**
+     * Get the cost of the path found by the most recent query.
+     *
+     * @return path cost, or {@link ShortestPathSearch#UNREACHABLE} if no path was found
+     */
+    public long getCost() {
+        return cost;
+    }
+
+    /**
+     * Get the number of nodes the most recent query settled.
+     *
+     * @return settled node count
+     */
+    public int getNumSettled() {
+        return settled;
+    }
+}
@@ -0,0 +1,186 @@
+import java.util.Arrays;
+
+/**
+ * Point-to-point cheapest-path search that runs Dijkstra's algorithm forward
+ * from the start and backward from the end at the same time.
+ *
+ * The backward search walks a transpose index (see {@link CsrGraph#transposeOf})
+ * so it can follow incoming edges. Each step advances the side whose queue
+ * holds the smaller key. Whenever a node carries labels from both sides, the
+ * sum is a candidate path cost, and the search stops as soon as the two queue
+ * minimums together reach the best candidate: no path through an unsettled
+ * node can be cheaper. On large sparse graphs the two balls together are far
+ * smaller than the single ball one-sided search needs to reach the end.
+ * <p>
+ * Like {@link ShortestPathSearch}, an instance reuses its scratch state across
+ * queries through version stamps; create one per graph and thread.
+ */
+public final class BidirectionalDijkstra {
+
+    private final Side forward;
+    private final Side backward;
+    private int epoch;
+    private long cost = ShortestPathSearch.UNREACHABLE;
+    private int meet = -1;
+
+    /**
+     * Prepare a search over a graph, building its transpose index.
+     *
+     * @param graph graph to search
+     * @throws IllegalArgumentException if the graph has a negative edge weight
+     */
+    public BidirectionalDijkstra(GraphView graph) {
+        this(graph, CsrGraph.transposeOf(graph));
+    }
+
+    /**
+     * Prepare a search over a graph with an existing transpose index, such as
+     * {@link Graph#getReverse()} or {@link CsrGraph#getReverse()}. Neither may
+     * gain nodes or edges while this instance is in use.
+     *
+     * @param graph graph to search
+     * @param reverse transpose of graph
+     * @throws IllegalArgumentException if the graph has a negative edge weight or
+     *         the two views differ in size
+     */
+    public BidirectionalDijkstra(GraphView graph, GraphView reverse) {
+        if (graph.getNumNodes() != reverse.getNumNodes() || graph.getNumEdges() != reverse.getNumEdges()) {
+            throw new IllegalArgumentException("Reverse index does not match the graph");
+        }
+        EdgeCursor c = graph.newCursor();
+        for (int u = 0; u < graph.getNumNodes(); u++) {
+            c.reset(u);
+            while (c.next()) {
+                if (c.getWeight() < 0) {
+                    throw new IllegalArgumentException("Negative edge weight " + c.getWeight()
+                            + " on " + u + " -> " + c.getTo());
+                }
+            }
+        }
+        this.forward = new Side(graph);
+        this.backward = new Side(reverse);
+    }
+
+    /**
+     * Find a minimum-cost path from start to end. Its cost is available
+     * afterwards from {@link #getCost()}.
+     *
+     * @param start start node index
+     * @param end destination node index
+     * @return node indices of a cheapest path (start first), or null if end is unreachable
+     */
+    public int[] findCheapestPath(int start, int end) {
+        if (++epoch == 0) { // stamps wrapped around: forget them all
+            Arrays.fill(forward.stamp, 0);
+            Arrays.fill(backward.stamp, 0);
+            epoch = 1;
+        }
+        cost = ShortestPathSearch.UNREACHABLE;
+        meet = -1;
+        forward.begin(start);
+        backward.begin(end);
+        if (start == end) {
+            cost = 0;
+            meet = start;
+        }
+
+        while (!forward.heap.isEmpty() && !backward.heap.isEmpty()
+                && forward.heap.peekKey() + backward.heap.peekKey() < cost) {
+            if (forward.heap.peekKey() <= backward.heap.peekKey()) {
+                forward.step(backward);
+            } else {
+                backward.step(forward);
+            }
+        }
+        if (meet < 0) return null;
+
+        int length = 0;
+        for (int v = meet; v != -1; v = forward.parent[v]) length++;
+        for (int v = meet; v != end; v = backward.parent[v]) length++;
+        int[] path = new int[length];
+        int i = 0;
+        for (int v = meet; v != -1; v = forward.parent[v]) path[i++] = v;
+        for (int lo = 0, hi = i - 1; lo < hi; lo++, hi--) {
+            int t = path[lo];
+            path[lo] = path[hi];
+            path[hi] = t;
+        }
+        for (int v = meet; v != end; ) {
+            v = backward.parent[v];
+            path[i++] = v;
+        }
+        return path;
+    }
+
+    /**
+     * Get the cost of the path found by the most recent query.
+     *
+     * @return path cost, or {@link ShortestPathSearch#UNREACHABLE} if no path was found
+     */
+    public long getCost() {
+        return cost;
+    }
+
+    /**
+     * Get the number of nodes the most recent query settled, over both directions.
+     *
+     * @return settled node count
+     */
+    public int getNumSettled() {
+        return forward.settled + backward.settled;
+    }
+
+    // One direction of the search; parents point back toward that side's source
+    private final class Side {
+        final GraphView graph;
+        final EdgeCursor cursor;
+        final IntDaryHeap heap;
+        final long[] dist;
+        final int[] parent;
+        final int[] stamp; // dist/parent of v are valid iff stamp[v] == epoch
+        int settled;
+
+        Side(GraphView graph) {
+            int numNodes = graph.getNumNodes();
+            this.graph = graph;
+            this.cursor = graph.newCursor();
+            this.heap = new IntDaryHeap(numNodes);
+            this.dist = new long[numNodes];
+            this.parent = new int[numNodes];
+            this.stamp = new int[numNodes];
+        }
+
+        void begin(int source) {
+            heap.clear();
+            settled = 0;
+            stamp[source] = epoch;
+            dist[source] = 0;
+            parent[source] = -1;
+            heap.insertOrDecrease(source, 0);
+        }
+
+        // Settle this side's closest node and relax its edges
+        void step(Side other) {
+            int u = heap.poll();
+            settled++;
+            long du = dist[u];
+            cursor.reset(u);
+            while (cursor.next()) {
+                int v = cursor.getTo();
+                long nd = du + cursor.getWeight();
+                if (stamp[v] != epoch) {
+                    stamp[v] = epoch;
+                } else if (nd >= dist[v]) {
+                    continue;
+                }
+                dist[v] = nd;
+                parent[v] = u;
+                heap.insertOrDecrease(v, nd);
+                if (other.stamp[v] == epoch && nd + other.dist[v] < cost) {
+                    cost = nd + other.dist[v];
+                    meet = v;
+                }
+            }
+        }
+    }
+}
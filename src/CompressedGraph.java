@@ -0,0 +1,263 @@
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Immutable directed, weighted graph with compressed adjacency lists.
+ *
+ * Each node's outgoing edges are sorted by destination and stored as a
+ * byte stream of variable-length integers: the first destination relative to
+ * the node itself (zig-zag encoded, since it may be smaller), then the gaps
+ * between consecutive destinations. Neighbors in real graphs tend to have
+ * nearby ids, so most gaps fit in a single byte. Weights are stored separately,
+ * bit-packed with just enough bits for the range max-min of all weights.
+ * <p>
+ * Edges are decoded on the fly by the {@link EdgeCursor}. Because lists are
+ * sorted by destination, DFS may visit neighbors in a different order than the
+ * source graph, so {@link #findAnyPath} and {@link #findCycle} can return a
+ * different (but equally valid) path or cycle.
+ */
+public final class CompressedGraph implements GraphView {
+
+    private final int numNodes;
+    private final int numEdges;
+    private final int[] edgeOffsets; // first edge index per node, length numNodes+1
+    private final int[] byteOffsets; // start of each node's list in data, length numNodes+1
+    private final byte[] data;
+    private final long[] packedWeights;
+    private final int weightBase;
+    private final int weightBits;
+
+    private CompressedGraph(int[] edgeOffsets, int[] byteOffsets, byte[] data,
+                            long[] packedWeights, int weightBase, int weightBits) {
+        this.numNodes = edgeOffsets.length - 1;
+        this.numEdges = edgeOffsets[numNodes];
+        this.edgeOffsets = edgeOffsets;
+        this.byteOffsets = byteOffsets;
+        this.data = data;
+        this.packedWeights = packedWeights;
+        this.weightBase = weightBase;
+        this.weightBits = weightBits;
+    }
+
+    /**
+     * Compress any graph. Parallel edges are kept; edges with the same
+     * destination stay in their original relative order.
+     *
+     * @param graph source graph
+     * @return compressed copy of the graph
+     */
+    public static CompressedGraph copyOf(GraphView graph) {
+        int numNodes = graph.getNumNodes();
+        int numEdges = graph.getNumEdges();
+        EdgeCursor c = graph.newCursor();
+
+        // Weight range decides the packed width
+        int min = Integer.MAX_VALUE;
+        int max = Integer.MIN_VALUE;
+        for (int i = 0; i < numNodes; i++) {
+            c.reset(i);
+            while (c.next()) {
+                min = Math.min(min, c.getWeight());
+                max = Math.max(max, c.getWeight());
+            }
+        }
+        int weightBase = numEdges == 0 ? 0 : min;
+        int weightBits = numEdges == 0 ? 0 : 64 - Long.numberOfLeadingZeros((long) max - min);
+        long[] packedWeights = new long[(int) (((long) numEdges * weightBits + 63) >>> 6) + 1];
+
+        int[] edgeOffsets = new int[numNodes + 1];
+        int[] byteOffsets = new int[numNodes + 1];
+        byte[] data = new byte[Math.max(16, numEdges)];
+        int bytePos = 0;
+        int edge = 0;
+
+        // (target, original position) pairs; sorting them keeps parallel edges stable
+        long[] order = new long[16];
+        int[] weights = new int[16];
+
+        for (int i = 0; i < numNodes; i++) {
+            edgeOffsets[i] = edge;
+            byteOffsets[i] = bytePos;
+
+            int degree = 0;
+            c.reset(i);
+            while (c.next()) {
+                if (degree == order.length) {
+                    order = Arrays.copyOf(order, degree * 2);
+                    weights = Arrays.copyOf(weights, degree * 2);
+                }
+                order[degree] = ((long) c.getTo() << 32) | degree;
+                weights[degree] = c.getWeight();
+                degree++;
+            }
+            Arrays.sort(order, 0, degree);
+
+            int prev = i;
+            for (int j = 0; j < degree; j++) {
+                int to = (int) (order[j] >>> 32);
+                if (data.length - bytePos < 5) data = Arrays.copyOf(data, data.length * 2);
+                bytePos = j == 0
+                        ? writeVarint(data, bytePos, zigZag(to - prev))
+                        : writeVarint(data, bytePos, to - prev);
+                prev = to;
+
+                int w = weights[(int) order[j]];
+                writeBits(packedWeights, (long) edge * weightBits, weightBits, (long) w - weightBase);
+                edge++;
+            }
+        }
+        edgeOffsets[numNodes] = edge;
+        byteOffsets[numNodes] = bytePos;
+
+        return new CompressedGraph(edgeOffsets, byteOffsets, Arrays.copyOf(data, bytePos),
+                packedWeights, weightBase, weightBits);
+    }
+
+    @Override
+    public int getNumNodes() {
+        return numNodes;
+    }
+
+    @Override
+    public int getNumEdges() {
+        return numEdges;
+    }
+
+    @Override
+    public int getDegree(int node) {
+        return edgeOffsets[node + 1] - edgeOffsets[node];
+    }
+
+    /**
+     * Approximate memory used by the compressed representation.
+     *
+     * @return size in bytes of the offset, adjacency and weight arrays
+     */
+    public long getSizeInBytes() {
+        return 2L * (numNodes + 1) * Integer.BYTES + data.length + (long) packedWeights.length * Long.BYTES;
+    }
+
+    @Override
+    public EdgeCursor newCursor() {
+        return new Cursor();
+    }
+
+    /**
+     * Find any path from start to end using depth-first search (DFS).
+     *
+     * @param start start node index
+     * @param end destination node index
+     * @return list of node indices forming the path, or null if none exists
+     * @see Graph#findAnyPath(int, int)
+     */
+    public List<Integer> findAnyPath(int start, int end) {
+        return GraphSearch.findAnyPath(this, start, end);
+    }
+
+    /**
+     * Calculate the total cost (sum of weights) for the given path.
+     *
+     * @param path list of node indices in traversal order
+     * @return total edge weight sum for the path
+     * @see Graph#calculateCost(List)
+     */
+    public int calculateCost(List<Integer> path) {
+        return GraphSearch.calculateCost(this, path);
+    }
+
+    /**
+     * Detect any directed cycle in the graph.
+     *
+     * @return list of node indices forming a cycle, or null if the graph is acyclic
+     * @see Graph#findCycle()
+     */
+    public List<Integer> findCycle() {
+        return GraphSearch.findCycle(this);
+    }
+
+    private static int zigZag(int v) {
+        return (v << 1) ^ (v >> 31);
+    }
+
+    private static int unZigZag(int v) {
+        return (v >>> 1) ^ -(v & 1);
+    }
+
+    // 7 bits per byte, high bit set on every byte except the last
+    private static int writeVarint(byte[] buf, int pos, int value) {
+        while ((value & ~0x7F) != 0) {
+            buf[pos++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buf[pos++] = (byte) value;
+        return pos;
+    }
+
+    private static void writeBits(long[] words, long bitPos, int bits, long value) {
+        if (bits == 0) return;
+        int word = (int) (bitPos >>> 6);
+        int shift = (int) (bitPos & 63);
+        words[word] |= value << shift;
+        if (shift + bits > 64) {
+            words[word + 1] |= value >>> (64 - shift);
+        }
+    }
+
+    private long readWeight(int edge) {
+        if (weightBits == 0) return 0;
+        long bitPos = (long) edge * weightBits;
+        int word = (int) (bitPos >>> 6);
+        int shift = (int) (bitPos & 63);
+        long value = packedWeights[word] >>> shift;
+        if (shift + weightBits > 64) {
+            value |= packedWeights[word + 1] << (64 - shift);
+        }
+        return value & (-1L >>> (64 - weightBits));
+    }
+
+    // Streaming decoder over one node's byte-encoded list
+    private final class Cursor implements EdgeCursor {
+        private int bytePos;
+        private int edge;
+        private int end;
+        private int to;
+        private boolean first;
+
+        @Override
+        public void reset(int node) {
+            bytePos = byteOffsets[node];
+            edge = edgeOffsets[node] - 1;
+            end = edgeOffsets[node + 1];
+            to = node;
+            first = true;
+        }
+
+        @Override
+        public boolean next() {
+            if (++edge >= end) return false;
+
+            int value = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = data[bytePos++];
+                value |= (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+
+            to += first ? unZigZag(value) : value;
+            first = false;
+            return true;
+        }
+
+        @Override
+        public int getTo() {
+            return to;
+        }
+
+        @Override
+        public int getWeight() {
+            return (int) (weightBase + readWeight(edge));
+        }
+    }
+}
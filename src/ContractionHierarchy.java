@@ -0,0 +1,690 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Contraction hierarchy over a static {@link GraphView}: a preprocessed index
+ * answering cheapest-path queries by searching only a tiny part of the graph.
+ *
+ * {@link #build(GraphView)} removes ("contracts") the nodes one at a time, the
+ * least important first. When a node v is removed, a shortcut u -&gt; w with the
+ * cost of u -&gt; v -&gt; w is added for each pair of its neighbors unless a
+ * bounded witness search finds a path from u to w that avoids v and is no more
+ * expensive. Importance is the edge difference (shortcuts added minus edges
+ * removed) plus the number of neighbors already contracted, which spreads the
+ * contraction evenly over the graph; priorities are updated lazily. Every node
+ * keeps the edges it had when it was contracted, which all lead to nodes
+ * contracted later ("higher" nodes): its outgoing edges form the upward graph
+ * and its incoming ones the downward graph.
+ * <p>
+ * A cheapest path can then always be found as an upward path from the start
+ * followed by a downward path to the end, so a {@link Query} runs Dijkstra's
+ * algorithm upward from both ends and meets at the top. Shortcuts remember the
+ * node they bypass, so paths are expanded back into original edges. Parallel
+ * edges are reduced to the cheapest one and self-loops are dropped.
+ * <p>
+ * The hierarchy is immutable and can be shared between threads; each thread
+ * needs its own {@link Query}. It can be saved next to the graph's file (see
+ * {@link #fileFor(String)}) and loaded again instead of being rebuilt.
+ */
+public final class ContractionHierarchy {
+
+    private static final int MAGIC = 0x48435247; // "GRCH" when read as little-endian bytes
+    private static final int VERSION = 1;
+    private static final int HEADER_INTS = 5;
+
+    // A witness search gives up (and a shortcut is added) after settling this many
+    // nodes; it stops earlier once a witness is found or ruled out for every
+    // out-neighbor of the contracted node
+    private static final int WITNESS_SETTLE_LIMIT = 500;
+
+    private static final int NO_MIDDLE = -1;
+
+    private final int numNodes;
+    private final int numShortcuts;
+    private final int[] rank;
+    private final int[] upOffsets;
+    private final int[] upTargets;
+    private final int[] upWeights;
+    private final int[] upMiddle;
+    private final int[] downOffsets; // downTargets are the sources of the edges into a node
+    private final int[] downTargets;
+    private final int[] downWeights;
+    private final int[] downMiddle;
+
+    private ContractionHierarchy(int[] rank,
+                                 int[] upOffsets, int[] upTargets, int[] upWeights, int[] upMiddle,
+                                 int[] downOffsets, int[] downTargets, int[] downWeights, int[] downMiddle) {
+        this.numNodes = rank.length;
+        this.rank = rank;
+        this.upOffsets = upOffsets;
+        this.upTargets = upTargets;
+        this.upWeights = upWeights;
+        this.upMiddle = upMiddle;
+        this.downOffsets = downOffsets;
+        this.downTargets = downTargets;
+        this.downWeights = downWeights;
+        this.downMiddle = downMiddle;
+
+        // Each shortcut is stored once, at whichever end was contracted first
+        int shortcuts = 0;
+        for (int middle : upMiddle) if (middle != NO_MIDDLE) shortcuts++;
+        for (int middle : downMiddle) if (middle != NO_MIDDLE) shortcuts++;
+        this.numShortcuts = shortcuts;
+    }
+
+    /**
+     * Contract every node of a graph. The graph is only read.
+     *
+     * @param graph graph to preprocess
+     * @return hierarchy for the graph
+     * @throws IllegalArgumentException if the graph has a negative edge weight or
+     *         a shortcut cost does not fit in an int
+     */
+    public static ContractionHierarchy build(GraphView graph) {
+        return new Builder(graph).build();
+    }
+
+    /**
+     * Get the number of nodes in the hierarchy.
+     *
+     * @return node count
+     */
+    public int getNumNodes() {
+        return numNodes;
+    }
+
+    /**
+     * Get the number of shortcut edges added during contraction.
+     *
+     * @return shortcut count
+     */
+    public int getNumShortcuts() {
+        return numShortcuts;
+    }
+
+    /**
+     * Get the position of a node in the contraction order; queries only move
+     * from lower to higher ranks.
+     *
+     * @param node node index
+     * @return rank, 0 for the first node contracted
+     */
+    public int getRank(int node) {
+        return rank[node];
+    }
+
+    /**
+     * Create a query engine over this hierarchy. Each thread needs its own.
+     *
+     * @return new query engine
+     */
+    public Query newQuery() {
+        return new Query();
+    }
+
+    /**
+     * Get the file a hierarchy is stored in next to a graph file.
+     *
+     * @param graphFile graph filename
+     * @return hierarchy filename
+     */
+    public static String fileFor(String graphFile) {
+        return graphFile + ".ch";
+    }
+
+    /**
+     * Write this hierarchy to a binary file that can later be read with {@link #load(String)}.
+     *
+     * @param filename target filename
+     * @throws IOException if the file cannot be written
+     */
+    public void save(String filename) throws IOException {
+        try (FileChannel ch = FileChannel.open(Paths.get(filename), StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer buf = ByteBuffer.allocate(1 << 16).order(ByteOrder.LITTLE_ENDIAN);
+            buf.putInt(MAGIC).putInt(VERSION).putInt(numNodes).putInt(upTargets.length).putInt(downTargets.length);
+            for (int[] array : new int[][] {rank, upOffsets, upTargets, upWeights, upMiddle,
+                    downOffsets, downTargets, downWeights, downMiddle}) {
+                for (int value : array) {
+                    if (!buf.hasRemaining()) flush(ch, buf);
+                    buf.putInt(value);
+                }
+            }
+            flush(ch, buf);
+        }
+    }
+
+    private static void flush(FileChannel ch, ByteBuffer buf) throws IOException {
+        buf.flip();
+        while (buf.hasRemaining()) ch.write(buf);
+        buf.clear();
+    }
+
+    /**
+     * Read a hierarchy written by {@link #save(String)}.
+     *
+     * @param filename file to read
+     * @return the stored hierarchy
+     * @throws IOException if the file cannot be read or is not a hierarchy file
+     */
+    public static ContractionHierarchy load(String filename) throws IOException {
+        try (FileChannel ch = FileChannel.open(Paths.get(filename), StandardOpenOption.READ)) {
+            ByteBuffer buf = ByteBuffer.allocate(1 << 16).order(ByteOrder.LITTLE_ENDIAN);
+            buf.limit(HEADER_INTS * Integer.BYTES);
+            fill(ch, buf, filename);
+            if (buf.getInt() != MAGIC || buf.getInt() != VERSION) {
+                throw new IOException("Not a contraction hierarchy file: " + filename);
+            }
+            int numNodes = buf.getInt();
+            int numUp = buf.getInt();
+            int numDown = buf.getInt();
+            if (numNodes < 0 || numUp < 0 || numDown < 0) {
+                throw new IOException("Corrupt contraction hierarchy file: " + filename);
+            }
+
+            int[] rank = readInts(ch, buf, numNodes, filename);
+            int[] upOffsets = readInts(ch, buf, numNodes + 1, filename);
+            int[] upTargets = readInts(ch, buf, numUp, filename);
+            int[] upWeights = readInts(ch, buf, numUp, filename);
+            int[] upMiddle = readInts(ch, buf, numUp, filename);
+            int[] downOffsets = readInts(ch, buf, numNodes + 1, filename);
+            int[] downTargets = readInts(ch, buf, numDown, filename);
+            int[] downWeights = readInts(ch, buf, numDown, filename);
+            int[] downMiddle = readInts(ch, buf, numDown, filename);
+            return new ContractionHierarchy(rank, upOffsets, upTargets, upWeights, upMiddle,
+                    downOffsets, downTargets, downWeights, downMiddle);
+        }
+    }
+
+    // Read until buf is full up to its limit, then flip it for reading
+    private static void fill(FileChannel ch, ByteBuffer buf, String filename) throws IOException {
+        while (buf.hasRemaining()) {
+            if (ch.read(buf) < 0) throw new IOException("Truncated contraction hierarchy file: " + filename);
+        }
+        buf.flip();
+    }
+
+    private static int[] readInts(FileChannel ch, ByteBuffer buf, int length, String filename) throws IOException {
+        int[] result = new int[length];
+        int i = 0;
+        while (i < length) {
+            int n = Math.min(length - i, buf.capacity() / Integer.BYTES);
+            buf.clear().limit(n * Integer.BYTES);
+            fill(ch, buf, filename);
+            buf.asIntBuffer().get(result, i, n);
+            i += n;
+        }
+        return result;
+    }
+
+    // Bypassed node of the edge at -> other (up) or other -> at (down) stored at node at
+    private int middleOf(int at, int other, boolean up) {
+        int[] offsets = up ? upOffsets : downOffsets;
+        int[] targets = up ? upTargets : downTargets;
+        for (int e = offsets[at], end = offsets[at + 1]; e < end; e++) {
+            if (targets[e] == other) return up ? upMiddle[e] : downMiddle[e];
+        }
+        throw new IllegalStateException("Missing hierarchy edge at node " + at);
+    }
+
+    /**
+     * Reusable point-to-point query over the hierarchy. Like
+     * {@link ShortestPathSearch}, its scratch state is invalidated through
+     * version stamps, so a query only touches the nodes it reaches.
+     */
+    public final class Query {
+
+        private final Side forward = new Side(upOffsets, upTargets, upWeights);
+        private final Side backward = new Side(downOffsets, downTargets, downWeights);
+        private int epoch;
+        private int meet = -1;
+        private long cost = ShortestPathSearch.UNREACHABLE;
+        private int[] path = new int[16];
+        private int[] stack = new int[32];
+
+        private Query() {
+        }
+
+        /**
+         * Compute the cost of a cheapest path from start to end without
+         * building the path itself.
+         *
+         * @param start start node index
+         * @param end destination node index
+         * @return path cost, or {@link ShortestPathSearch#UNREACHABLE} if end is unreachable
+         */
+        public long findCost(int start, int end) {
+            if (++epoch == 0) { // stamps wrapped around: forget them all
+                Arrays.fill(forward.stamp, 0);
+                Arrays.fill(backward.stamp, 0);
+                epoch = 1;
+            }
+            cost = ShortestPathSearch.UNREACHABLE;
+            meet = -1;
+            forward.begin(start);
+            backward.begin(end);
+            if (start == end) {
+                cost = 0;
+                meet = start;
+            }
+
+            // Both searches only go up, so neither may stop at the first meeting
+            // node; each runs until its closest node is no better than the best path
+            boolean forwardDone = false;
+            boolean backwardDone = false;
+            while (!forwardDone || !backwardDone) {
+                forwardDone = forwardDone || forward.heap.isEmpty() || forward.heap.peekKey() >= cost;
+                backwardDone = backwardDone || backward.heap.isEmpty() || backward.heap.peekKey() >= cost;
+                if (!forwardDone && (backwardDone || forward.heap.peekKey() <= backward.heap.peekKey())) {
+                    forward.step(backward);
+                } else if (!backwardDone) {
+                    backward.step(forward);
+                }
+            }
+            return cost;
+        }
+
+        /**
+         * Find a minimum-cost path from start to end, expanding shortcuts into
+         * original edges. Its cost is available afterwards from {@link #getCost()}.
+         *
+         * @param start start node index
+         * @param end destination node index
+         * @return node indices of a cheapest path (start first), or null if end is unreachable
+         */
+        public int[] findCheapestPath(int start, int end) {
+            if (findCost(start, end) == ShortestPathSearch.UNREACHABLE) return null;
+
+            // Hierarchy nodes: up from start to meet, then down from meet to end
+            int upHops = 0;
+            int downHops = 0;
+            for (int v = meet; v != start; v = forward.parent[v]) upHops++;
+            for (int v = meet; v != end; v = backward.parent[v]) downHops++;
+            int[] hops = new int[upHops + downHops + 1];
+            for (int v = meet, k = upHops; k >= 0; v = forward.parent[v], k--) {
+                hops[k] = v;
+            }
+            for (int v = meet, k = upHops; v != end; ) {
+                v = backward.parent[v];
+                hops[++k] = v;
+            }
+
+            int size = 0;
+            path[size++] = start;
+            for (int k = 0; k + 1 < hops.length; k++) {
+                size = unpack(hops[k], hops[k + 1], size);
+            }
+            return Arrays.copyOf(path, size);
+        }
+
+        // Append the original nodes after from on the edge from -> to; the edge is
+        // stored upward at from or downward at to, whichever is lower
+        private int unpack(int from, int to, int size) {
+            int top = 0;
+            stack = push(stack, top, from, to);
+            top += 2;
+            while (top > 0) {
+                top -= 2;
+                int u = stack[top];
+                int w = stack[top + 1];
+                int middle = rank[u] < rank[w] ? middleOf(u, w, true) : middleOf(w, u, false);
+                if (middle == NO_MIDDLE) {
+                    if (size == path.length) path = Arrays.copyOf(path, size * 2);
+                    path[size++] = w;
+                } else {
+                    // Second half first so the first half is expanded first
+                    stack = push(stack, top, middle, w);
+                    top += 2;
+                    stack = push(stack, top, u, middle);
+                    top += 2;
+                }
+            }
+            return size;
+        }
+
+        private int[] push(int[] s, int top, int u, int w) {
+            if (top + 2 > s.length) s = Arrays.copyOf(s, s.length * 2);
+            s[top] = u;
+            s[top + 1] = w;
+            return s;
+        }
+
+        /**
+         * Get the cost of the path found by the most recent query.
+         *
+         * @return path cost, or {@link ShortestPathSearch#UNREACHABLE} if no path was found
+         */
+        public long getCost() {
+            return cost;
+        }
+
+        // One upward search; parents point back toward that side's source
+        private final class Side {
+            final int[] offsets;
+            final int[] targets;
+            final int[] weights;
+            final IntDaryHeap heap = new IntDaryHeap(numNodes);
+            final long[] dist = new long[numNodes];
+            final int[] parent = new int[numNodes];
+            final int[] stamp = new int[numNodes]; // dist/parent of v are valid iff stamp[v] == epoch
+
+            Side(int[] offsets, int[] targets, int[] weights) {
+                this.offsets = offsets;
+                this.targets = targets;
+                this.weights = weights;
+            }
+
+            void begin(int source) {
+                heap.clear();
+                stamp[source] = epoch;
+                dist[source] = 0;
+                parent[source] = -1;
+                heap.insertOrDecrease(source, 0);
+            }
+
+            void step(Side other) {
+                int u = heap.poll();
+                long du = dist[u];
+                for (int e = offsets[u], end = offsets[u + 1]; e < end; e++) {
+                    int v = targets[e];
+                    long nd = du + weights[e];
+                    if (stamp[v] != epoch) {
+                        stamp[v] = epoch;
+                    } else if (nd >= dist[v]) {
+                        continue;
+                    }
+                    dist[v] = nd;
+                    parent[v] = u;
+                    heap.insertOrDecrease(v, nd);
+                    if (other.stamp[v] == epoch && nd + other.dist[v] < cost) {
+                        cost = nd + other.dist[v];
+                        meet = v;
+                    }
+                }
+            }
+        }
+    }
+
+    // Contraction state: the remaining graph as mutable per-node edge lists
+    private static final class Builder {
+        private final int numNodes;
+        private final EdgeList[] out;
+        private final EdgeList[] in;
+        private final int[] rank;
+        private final int[] contractedNeighbors;
+
+        // Witness search scratch
+        private final IntDaryHeap witnessHeap;
+        private final long[] witnessDist;
+        private final int[] witnessStamp;
+        private final int[] witnessFound; // a witness to v is known iff witnessFound[v] == witnessEpoch
+        private int witnessEpoch;
+        private final int[] targetStamp; // v is marked iff targetStamp[v] == targetEpoch
+        private int targetEpoch;
+        private int[] touched = new int[16]; // distinct neighbors of the node just contracted
+
+        Builder(GraphView graph) {
+            numNodes = graph.getNumNodes();
+            out = new EdgeList[numNodes];
+            in = new EdgeList[numNodes];
+            for (int v = 0; v < numNodes; v++) {
+                out[v] = new EdgeList();
+                in[v] = new EdgeList();
+            }
+            EdgeCursor c = graph.newCursor();
+            for (int u = 0; u < numNodes; u++) {
+                c.reset(u);
+                while (c.next()) {
+                    if (c.getWeight() < 0) {
+                        throw new IllegalArgumentException("Negative edge weight " + c.getWeight()
+                                + " on " + u + " -> " + c.getTo());
+                    }
+                    if (c.getTo() != u) addEdge(u, c.getTo(), c.getWeight(), NO_MIDDLE);
+                }
+            }
+            rank = new int[numNodes];
+            contractedNeighbors = new int[numNodes];
+            witnessHeap = new IntDaryHeap(numNodes);
+            witnessDist = new long[numNodes];
+            witnessStamp = new int[numNodes];
+            witnessFound = new int[numNodes];
+            targetStamp = new int[numNodes];
+        }
+
+        ContractionHierarchy build() {
+            IntDaryHeap order = new IntDaryHeap(numNodes);
+            for (int v = 0; v < numNodes; v++) order.insertOrDecrease(v, priority(v));
+
+            int next = 0;
+            while (!order.isEmpty()) {
+                int v = order.poll();
+                // Contracting neighbors may have changed v's priority since it was
+                // queued; requeue v if it is no longer the least important node
+                long p = priority(v);
+                if (!order.isEmpty() && p > order.peekKey()) {
+                    order.insertOrDecrease(v, p);
+                    continue;
+                }
+
+                contract(v, true);
+                rank[v] = next++;
+
+                // A node can be both an in- and an out-neighbor of v; it loses
+                // one neighbor and gets one priority update
+                nextTargetEpoch();
+                int neighbors = 0;
+                EdgeList o = out[v];
+                for (int i = 0; i < o.size; i++) {
+                    int w = o.node[i];
+                    in[w].remove(v);
+                    neighbors = touch(w, neighbors);
+                }
+                EdgeList n = in[v];
+                for (int i = 0; i < n.size; i++) {
+                    int u = n.node[i];
+                    out[u].remove(v);
+                    neighbors = touch(u, neighbors);
+                }
+                for (int i = 0; i < neighbors; i++) {
+                    int w = touched[i];
+                    contractedNeighbors[w]++;
+                    order.insertOrDecrease(w, priority(w));
+                }
+            }
+
+            // What is left at each node is its upward (out) and downward (in) edge set
+            int[] upOffsets = new int[numNodes + 1];
+            int[] downOffsets = new int[numNodes + 1];
+            for (int v = 0; v < numNodes; v++) {
+                upOffsets[v + 1] = upOffsets[v] + out[v].size;
+                downOffsets[v + 1] = downOffsets[v] + in[v].size;
+            }
+            int[] upTargets = new int[upOffsets[numNodes]];
+            int[] upWeights = new int[upTargets.length];
+            int[] upMiddle = new int[upTargets.length];
+            int[] downTargets = new int[downOffsets[numNodes]];
+            int[] downWeights = new int[downTargets.length];
+            int[] downMiddle = new int[downTargets.length];
+            for (int v = 0; v < numNodes; v++) {
+                out[v].copyTo(upTargets, upWeights, upMiddle, upOffsets[v]);
+                in[v].copyTo(downTargets, downWeights, downMiddle, downOffsets[v]);
+            }
+            return new ContractionHierarchy(rank, upOffsets, upTargets, upWeights, upMiddle,
+                    downOffsets, downTargets, downWeights, downMiddle);
+        }
+
+        // Record w in touched unless it already is; returns the new count
+        private int touch(int w, int count) {
+            if (targetStamp[w] == targetEpoch) return count;
+            targetStamp[w] = targetEpoch;
+            if (count == touched.length) touched = Arrays.copyOf(touched, count * 2);
+            touched[count] = w;
+            return count + 1;
+        }
+
+        private void nextTargetEpoch() {
+            if (++targetEpoch == 0) {
+                Arrays.fill(targetStamp, 0);
+                targetEpoch = 1;
+            }
+        }
+
+        // Edge difference plus contracted neighbors; smaller is contracted first
+        private long priority(int v) {
+            return contract(v, false) - in[v].size - out[v].size + contractedNeighbors[v];
+        }
+
+        // Count (and if add is set, insert) the shortcuts needed to remove v
+        private int contract(int v, boolean add) {
+            EdgeList o = out[v];
+            EdgeList n = in[v];
+            if (o.size == 0 || n.size == 0) return 0;
+            nextTargetEpoch();
+            for (int i = 0; i < o.size; i++) targetStamp[o.node[i]] = targetEpoch;
+
+            int shortcuts = 0;
+            for (int i = 0; i < n.size; i++) {
+                int u = n.node[i];
+                long uv = n.weight[i];
+                witnessSearch(u, v, uv, o);
+                for (int j = 0; j < o.size; j++) {
+                    int w = o.node[j];
+                    if (w == u || witnessFound[w] == witnessEpoch) continue;
+                    shortcuts++;
+                    if (add) {
+                        long cost = uv + o.weight[j];
+                        if (cost > Integer.MAX_VALUE) {
+                            throw new IllegalArgumentException("Shortcut " + u + " -> " + w + " costs " + cost);
+                        }
+                        addEdge(u, w, (int) cost, v);
+                    }
+                }
+            }
+            return shortcuts;
+        }
+
+        // Dijkstra from source in the remaining graph without via, looking for a
+        // path to each target w (marked in targetStamp, with the edge via -> w in
+        // targets) that costs at most sourceToVia + weight(via -> w). It stops
+        // once every target has such a witness or the queue passes the largest
+        // cost still open.
+        private void witnessSearch(int source, int via, long sourceToVia, EdgeList targets) {
+            if (++witnessEpoch == 0) {
+                Arrays.fill(witnessStamp, 0);
+                Arrays.fill(witnessFound, 0);
+                witnessEpoch = 1;
+            }
+            int open = 0;
+            long maxCost = openCost(source, sourceToVia, targets);
+            for (int i = 0; i < targets.size; i++) {
+                if (targets.node[i] != source) open++;
+            }
+
+            witnessHeap.clear();
+            witnessStamp[source] = witnessEpoch;
+            witnessDist[source] = 0;
+            witnessHeap.insertOrDecrease(source, 0);
+            int settled = 0;
+            while (open > 0 && !witnessHeap.isEmpty() && witnessHeap.peekKey() <= maxCost
+                    && settled++ < WITNESS_SETTLE_LIMIT) {
+                int u = witnessHeap.poll();
+                long du = witnessDist[u];
+                EdgeList o = out[u];
+                for (int i = 0; i < o.size; i++) {
+                    int w = o.node[i];
+                    if (w == via) continue;
+                    long nd = du + o.weight[i];
+                    if (witnessStamp[w] != witnessEpoch) {
+                        witnessStamp[w] = witnessEpoch;
+                    } else if (nd >= witnessDist[w]) {
+                        continue;
+                    }
+                    witnessDist[w] = nd;
+                    witnessHeap.insertOrDecrease(w, nd);
+                    if (targetStamp[w] == targetEpoch && witnessFound[w] != witnessEpoch
+                            && nd <= sourceToVia + targets.weight[targets.indexOf(w)]) {
+                        witnessFound[w] = witnessEpoch;
+                        open--;
+                        maxCost = openCost(source, sourceToVia, targets);
+                    }
+                }
+            }
+        }
+
+        // Largest cost source -> via -> w over the targets w without a witness yet
+        private long openCost(int source, long sourceToVia, EdgeList targets) {
+            long max = -1;
+            for (int i = 0; i < targets.size; i++) {
+                int w = targets.node[i];
+                if (w != source && witnessFound[w] != witnessEpoch) {
+                    max = Math.max(max, sourceToVia + targets.weight[i]);
+                }
+            }
+            return max;
+        }
+
+        // Add u -> w, or lower the weight of the existing edge
+        private void addEdge(int u, int w, int weight, int middle) {
+            EdgeList o = out[u];
+            int i = o.indexOf(w);
+            if (i < 0) {
+                o.add(w, weight, middle);
+                in[w].add(u, weight, middle);
+                return;
+            }
+            if (o.weight[i] <= weight) return;
+            o.weight[i] = weight;
+            o.middle[i] = middle;
+            EdgeList n = in[w];
+            int j = n.indexOf(u);
+            n.weight[j] = weight;
+            n.middle[j] = middle;
+        }
+    }
+
+    // Growable (node, weight, middle) triples; order is not preserved on removal
+    private static final class EdgeList {
+        int[] node = new int[4];
+        int[] weight = new int[4];
+        int[] middle = new int[4];
+        int size;
+
+        void add(int v, int w, int m) {
+            if (size == node.length) {
+                node = Arrays.copyOf(node, size * 2);
+                weight = Arrays.copyOf(weight, size * 2);
+                middle = Arrays.copyOf(middle, size * 2);
+            }
+            node[size] = v;
+            weight[size] = w;
+            middle[size++] = m;
+        }
+
+        int indexOf(int v) {
+            for (int i = 0; i < size; i++) {
+                if (node[i] == v) return i;
+            }
+            return -1;
+        }
+
+        void remove(int v) {
+            int i = indexOf(v);
+            if (i < 0) return;
+            size--;
+            node[i] = node[size];
+            weight[i] = weight[size];
+            middle[i] = middle[size];
+        }
+
+        void copyTo(int[] nodes, int[] weights, int[] middles, int at) {
+            System.arraycopy(node, 0, nodes, at, size);
+            System.arraycopy(weight, 0, weights, at, size);
+            System.arraycopy(middle, 0, middles, at, size);
+        }
+    }
+}
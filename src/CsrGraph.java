@@ -0,0 +1,285 @@
+import java.util.Arrays;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Immutable directed, weighted graph in compressed sparse row (CSR) form.
+ *
+ * The outgoing edges of node {@code u} occupy the index range
+ * {@code offsets[u] .. offsets[u+1]-1} of the parallel {@code targets} and
+ * {@code weights} arrays, in the same order they were added to the source
+ * {@link Graph}. Three flat int arrays replace the per-edge objects and boxed
+ * map keys, which makes this layout well suited to graphs that are built once
+ * and queried many times. Instances are obtained through {@link Graph#freeze()}.
+ */
+public final class CsrGraph implements GraphView {
+
+    private final int numNodes;
+    private final int[] offsets;
+    private final int[] targets;
+    private final int[] weights;
+
+    // Lazily built transpose; racing threads may build it twice, which is harmless
+    private volatile CsrGraph reverse;
+    private volatile EdgeIndex edgeIndex;
+
+    /**
+     * Wrap already-built CSR arrays. The arrays are not copied and must not be
+     * modified afterwards.
+     *
+     * @param offsets edge offsets per node, length numNodes+1
+     * @param targets destination node of every edge
+     * @param weights weight of every edge
+     */
+    CsrGraph(int[] offsets, int[] targets, int[] weights) {
+        this.numNodes = offsets.length - 1;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+    }
+
+    /**
+     * Build the transpose of a graph: for every edge u -&gt; v (weight w) the result
+     * has an edge v -&gt; u with the same weight. The in-edges of each node are
+     * listed by ascending source node, then in the source's edge order.
+     *
+     * @param graph graph to transpose
+     * @return CSR graph of the incoming edges of {@code graph}
+     */
+    public static CsrGraph transposeOf(GraphView graph) {
+        int numNodes = graph.getNumNodes();
+        int[] offsets = new int[numNodes + 1];
+        EdgeCursor c = graph.newCursor();
+
+        // First pass: in-degree of every node
+        for (int u = 0; u < numNodes; u++) {
+            c.reset(u);
+            while (c.next()) offsets[c.getTo() + 1]++;
+        }
+        for (int v = 0; v < numNodes; v++) offsets[v + 1] += offsets[v];
+
+        // Second pass: place each edge at its destination's next free slot
+        int[] next = Arrays.copyOf(offsets, numNodes);
+        int[] sources = new int[offsets[numNodes]];
+        int[] inWeights = new int[offsets[numNodes]];
+        for (int u = 0; u < numNodes; u++) {
+            c.reset(u);
+            while (c.next()) {
+                int pos = next[c.getTo()]++;
+                sources[pos] = u;
+                inWeights[pos] = c.getWeight();
+            }
+        }
+
+        return new CsrGraph(offsets, sources, inWeights);
+    }
+
+    /**
+     * Return the reverse (incoming-edge) index of this graph, building it on the
+     * first call. Node v's edges in the result are the edges u -&gt; v of this graph,
+     * so backward traversals cost O(in-degree) per node.
+     *
+     * @return transpose of this graph
+     * @see #transposeOf(GraphView)
+     */
+    public CsrGraph getReverse() {
+        CsrGraph r = reverse;
+        if (r == null) {
+            r = transposeOf(this);
+            r.reverse = this;
+            reverse = r;
+        }
+        return r;
+    }
+
+    @Override
+    public int getNumNodes() {
+        return numNodes;
+    }
+
+    @Override
+    public int getNumEdges() {
+        return targets.length;
+    }
+
+    @Override
+    public int getDegree(int node) {
+        return offsets[node + 1] - offsets[node];
+    }
+
+    /**
+     * Index of the first outgoing edge of a node.
+     *
+     * @param node node index
+     * @return first edge index (inclusive)
+     */
+    public int getEdgeStart(int node) {
+        return offsets[node];
+    }
+
+    /**
+     * Index one past the last outgoing edge of a node.
+     *
+     * @param node node index
+     * @return last edge index (exclusive)
+     */
+    public int getEdgeEnd(int node) {
+        return offsets[node + 1];
+    }
+
+    /**
+     * Destination node of the edge with the given index.
+     *
+     * @param edge edge index
+     * @return destination node index
+     */
+    public int getTarget(int edge) {
+        return targets[edge];
+    }
+
+    /**
+     * Weight of the edge with the given index.
+     *
+     * @param edge edge index
+     * @return edge weight
+     */
+    public int getWeight(int edge) {
+        return weights[edge];
+    }
+
+    /**
+     * Check whether there is an edge from {@code from} to {@code to}. Larger
+     * adjacency lists are looked up through an {@link EdgeIndex} built on first use.
+     *
+     * @param from source node index
+     * @param to destination node index
+     * @return true if at least one such edge exists
+     */
+    public boolean hasEdge(int from, int to) {
+        return findEdge(from, to) >= 0;
+    }
+
+    /**
+     * Get the weight of the edge from {@code from} to {@code to}. With parallel
+     * edges, the weight of the first one in CSR order is returned.
+     *
+     * @param from source node index
+     * @param to destination node index
+     * @return edge weight
+     * @throws NoSuchElementException if there is no such edge
+     */
+    public int getEdgeWeight(int from, int to) {
+        int e = findEdge(from, to);
+        if (e < 0) {
+            throw new NoSuchElementException("No edge " + from + " -> " + to);
+        }
+        return weights[e];
+    }
+
+    /**
+     * Find the index of the first edge from {@code from} to {@code to}.
+     *
+     * @param from source node index
+     * @param to destination node index
+     * @return edge index, or -1 if there is no such edge
+     */
+    public int findEdge(int from, int to) {
+        int start = offsets[from];
+        int end = offsets[from + 1];
+        if (end - start <= EdgeIndex.LINEAR_SCAN_DEGREE) {
+            for (int e = start; e < end; e++) {
+                if (targets[e] == to) return e;
+            }
+            return -1;
+        }
+
+        EdgeIndex index = edgeIndex;
+        if (index == null) {
+            index = EdgeIndex.build(this);
+            edgeIndex = index;
+        }
+        int i = index.indexOf(from, to);
+        return i == EdgeIndex.NO_EDGE ? -1 : start + i;
+    }
+
+    @Override
+    public void forEachNeighbor(int node, EdgeVisitor visitor) {
+        for (int e = offsets[node]; e < offsets[node + 1]; e++) {
+            visitor.visit(targets[e], weights[e]);
+        }
+    }
+
+    @Override
+    public EdgeCursor newCursor() {
+        return new Cursor();
+    }
+
+    /**
+     * Find any path from start to end using depth-first search (DFS).
+     *
+     * @param start start node index
+     * @param end destination node index
+     * @return list of node indices forming the path, or null if none exists
+     * @see Graph#findAnyPath(int, int)
+     */
+    public List<Integer> findAnyPath(int start, int end) {
+        return GraphSearch.findAnyPath(this, start, end);
+    }
+
+    /**
+     * Calculate the total cost (sum of weights) for the given path.
+     *
+     * @param path list of node indices in traversal order
+     * @return total edge weight sum for the path
+     * @see Graph#calculateCost(List)
+     */
+    public int calculateCost(List<Integer> path) {
+        int cost = 0;
+
+        for (int i = 0; i < path.size() - 1; i++) {
+            int e = findEdge(path.get(i), path.get(i + 1));
+            if (e >= 0) {
+                cost += weights[e];
+            }
+        }
+
+        return cost;
+    }
+
+    /**
+     * Detect any directed cycle in the graph.
+     *
+     * @return list of node indices forming a cycle, or null if the graph is acyclic
+     * @see Graph#findCycle()
+     */
+    public List<Integer> findCycle() {
+        return GraphSearch.findCycle(this);
+    }
+
+    // Cursor walking a contiguous slice of the targets/weights arrays
+    private final class Cursor implements EdgeCursor {
+        private int pos;
+        private int end;
+
+        @Override
+        public void reset(int node) {
+            pos = offsets[node] - 1;
+            end = offsets[node + 1];
+        }
+
+        @Override
+        public boolean next() {
+            return ++pos < end;
+        }
+
+        @Override
+        public int getTo() {
+            return targets[pos];
+        }
+
+        @Override
+        public int getWeight() {
+            return weights[pos];
+        }
+    }
+}
@@ -0,0 +1,545 @@
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Parallel single-source cheapest paths (delta-stepping) over a
+ * {@link GraphView} with non-negative edge weights.
+ *
+ * Tentative distances are grouped into buckets of width delta. All nodes of
+ * the lowest non-empty bucket are relaxed at once on a {@link ForkJoinPool}:
+ * first their light edges (weight &lt;= delta) are relaxed repeatedly, since
+ * those can land back in the same bucket, then once the bucket is empty the
+ * heavy edges of every node it settled are relaxed a single time. A small
+ * delta approaches Dijkstra's order (little wasted work, little parallelism),
+ * a large one approaches Bellman-Ford. The default of maximum weight divided
+ * by average degree is a good start for random graphs.
+ * <p>
+ * Distances are only ever lowered, with compare-and-set, so relaxations never
+ * lock. Each leaf task logs the updates it made; once the step is done the
+ * leaves replay their logs in parallel, and the update that produced a node's
+ * distance at the end of the step sets its parent and queues the node in the
+ * leaf's own buffer, grouped by bucket. Buckets are lists of such buffers, so
+ * the calling thread only links them in (work per leaf, not per node), and the
+ * next frontier is read straight from them by tasks that also drop stale and
+ * duplicate entries. Setting up and copying out the per-node arrays runs on
+ * the pool as well. Light and heavy edges are copied into two CSR arrays up
+ * front, so the graph itself is only read while constructing. One search runs
+ * at a time per instance.
+ */
+public final class DeltaSteppingSearch {
+
+    // Frontiers smaller than this are relaxed on the calling thread
+    private static final int GRAIN = 512;
+
+    // Slice size for the per-node setup and copy loops of a search
+    private static final int FILL_GRAIN = 1 << 16;
+
+    private final int numNodes;
+    private final int delta;
+    private final ForkJoinPool pool;
+
+    private final int[] lightOffsets;
+    private final int[] lightTargets;
+    private final int[] lightWeights;
+    private final int[] heavyOffsets;
+    private final int[] heavyTargets;
+    private final int[] heavyWeights;
+
+    private final AtomicLongArray dist;
+    private final int[] parent;                  // set by the one update that produced dist[v]
+    private final AtomicIntegerArray inFrontier; // v was relaxed this phase iff inFrontier[v] == phase
+    private final AtomicIntegerArray settledIn;  // v is in settled iff settledIn[v] == round
+    private final Segments[] buckets;            // created on first use
+    private final Segments settled = new Segments();
+    private Segments spare = new Segments();
+    private int phase;
+    private int round;
+
+    /**
+     * Prepare a search with the default delta on the common pool.
+     *
+     * @param graph graph to search
+     * @throws IllegalArgumentException if the graph has a negative edge weight
+     */
+    public DeltaSteppingSearch(GraphView graph) {
+        this(graph, 0, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Prepare a search with the given bucket width on the common pool.
+     *
+     * @param graph graph to search
+     * @param delta bucket width, or 0 for the default
+     * @throws IllegalArgumentException if delta is negative or the graph has a
+     *         negative edge weight
+     */
+    public DeltaSteppingSearch(GraphView graph, int delta) {
+        this(graph, delta, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Prepare a search with the given bucket width running on the given pool.
+     *
+     * @param graph graph to search
+     * @param delta bucket width, or 0 for the default
+     * @param pool pool the relaxations run on
+     * @throws IllegalArgumentException if delta is negative or the graph has a
+     *         negative edge weight
+     */
+    public DeltaSteppingSearch(GraphView graph, int delta, ForkJoinPool pool) {
+        if (delta < 0) throw new IllegalArgumentException("Negative delta " + delta);
+        this.numNodes = graph.getNumNodes();
+        this.pool = pool;
+
+        EdgeCursor cursor = graph.newCursor();
+        int maxWeight = 0;
+        long numEdges = 0;
+        for (int u = 0; u < numNodes; u++) {
+            cursor.reset(u);
+            while (cursor.next()) {
+                if (cursor.getWeight() < 0) {
+                    throw new IllegalArgumentException("Negative edge weight " + cursor.getWeight()
+                            + " on " + u + " -> " + cursor.getTo());
+                }
+                maxWeight = Math.max(maxWeight, cursor.getWeight());
+                numEdges++;
+            }
+        }
+        if (delta == 0) {
+            // With fewer edges than nodes this would exceed maxWeight, where all edges are light anyway
+            delta = (int) Math.max(1, Math.min(maxWeight, maxWeight * (long) numNodes / Math.max(1, numEdges)));
+        }
+        this.delta = delta;
+
+        // Split every node's edges into light and heavy CSR slices
+        lightOffsets = new int[numNodes + 1];
+        heavyOffsets = new int[numNodes + 1];
+        for (int u = 0; u < numNodes; u++) {
+            cursor.reset(u);
+            while (cursor.next()) {
+                if (cursor.getWeight() <= delta) lightOffsets[u + 1]++;
+                else heavyOffsets[u + 1]++;
+            }
+            lightOffsets[u + 1] += lightOffsets[u];
+            heavyOffsets[u + 1] += heavyOffsets[u];
+        }
+        lightTargets = new int[lightOffsets[numNodes]];
+        lightWeights = new int[lightTargets.length];
+        heavyTargets = new int[heavyOffsets[numNodes]];
+        heavyWeights = new int[heavyTargets.length];
+        for (int u = 0; u < numNodes; u++) {
+            int light = lightOffsets[u];
+            int heavy = heavyOffsets[u];
+            cursor.reset(u);
+            while (cursor.next()) {
+                if (cursor.getWeight() <= delta) {
+                    lightTargets[light] = cursor.getTo();
+                    lightWeights[light++] = cursor.getWeight();
+                } else {
+                    heavyTargets[heavy] = cursor.getTo();
+                    heavyWeights[heavy++] = cursor.getWeight();
+                }
+            }
+        }
+
+        // Queued distances lie within maxWeight of the current bucket, so the
+        // buckets can be reused circularly
+        this.buckets = new Segments[maxWeight / delta + 2];
+        this.dist = new AtomicLongArray(numNodes);
+        this.parent = new int[numNodes];
+        this.inFrontier = new AtomicIntegerArray(numNodes);
+        this.settledIn = new AtomicIntegerArray(numNodes);
+    }
+
+    /**
+     * Get the bucket width in use.
+     *
+     * @return delta
+     */
+    public int getDelta() {
+        return delta;
+    }
+
+    /**
+     * Compute the cheapest path from a source to every node.
+     *
+     * @param source start node index
+     * @return distances and parents of all nodes
+     */
+    public Result search(int source) {
+        forRange((lo, hi) -> {
+            for (int v = lo; v < hi; v++) {
+                dist.set(v, ShortestPathSearch.UNREACHABLE);
+                parent[v] = -1;
+            }
+        });
+        for (Segments bucket : buckets) {
+            if (bucket != null) bucket.clear();
+        }
+        dist.set(source, 0);
+        bucket(0).add(new int[] {source}, 0, 1);
+        long pending = 1; // bucket entries, including stale ones
+
+        for (long i = 0; pending > 0; i++) {
+            int b = (int) (i % buckets.length);
+            if (buckets[b] == null || buckets[b].size == 0) continue;
+            nextRound();
+            settled.clear();
+
+            while (buckets[b].size > 0) {
+                // Relax the light edges of the live, distinct entries of the bucket;
+                // nodes they improve are queued in fresh segments
+                Segments frontier = buckets[b];
+                buckets[b] = spare;
+                pending -= frontier.size;
+                nextPhase();
+                pending += relax(frontier, i, lightOffsets, lightTargets, lightWeights);
+                frontier.clear();
+                spare = frontier;
+            }
+            pending += relax(settled, -1, heavyOffsets, heavyTargets, heavyWeights);
+        }
+
+        long[] distances = new long[numNodes];
+        int[] parents = new int[numNodes];
+        forRange((lo, hi) -> {
+            for (int v = lo; v < hi; v++) distances[v] = dist.get(v);
+            System.arraycopy(parent, lo, parents, lo, hi - lo);
+        });
+        return new Result(source, distances, parents);
+    }
+
+    // Relax the given edges of every node in nodes, then set the parent of and
+    // queue every node whose distance dropped; returns the number of bucket
+    // entries added. With bucketIndex >= 0, entries that are no longer in that
+    // bucket or were already relaxed this phase are skipped and the rest are
+    // added to settled. Both passes run on the pool; only the per-leaf segments
+    // are linked into the buckets afterwards on the calling thread.
+    private int relax(Segments nodes, long bucketIndex, int[] offsets, int[] targets, int[] weights) {
+        if (nodes.size == 0) return 0;
+        Relaxation task = new Relaxation(nodes, bucketIndex, 0, nodes.size, offsets, targets, weights);
+        if (nodes.size <= GRAIN) {
+            task.compute();
+            task.replay();
+        } else {
+            pool.invoke(task);
+            pool.invoke(new Replay(task));
+        }
+        return task.link();
+    }
+
+    private final class Relaxation extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final Segments nodes;
+        private final long bucketIndex;
+        private final int lo;
+        private final int hi;
+        private final int[] offsets;
+        private final int[] targets;
+        private final int[] weights;
+
+        // Children of a split task
+        private Relaxation left;
+        private Relaxation right;
+
+        // Updates a leaf made: v got distance updateDist[k] through updateFrom[k]
+        private int[] updateNode;
+        private int[] updateFrom;
+        private long[] updateDist;
+        private int numUpdates;
+
+        // Nodes a leaf relaxed for the first time this round
+        private int[] newlySettled;
+        private int numSettled;
+
+        // Nodes a leaf queues, grouped into runs that share a bucket
+        private int[] queued;
+        private int[] runBucket;
+        private int[] runStart;
+        private int numRuns;
+
+        Relaxation(Segments nodes, long bucketIndex, int lo, int hi, int[] offsets, int[] targets, int[] weights) {
+            this.nodes = nodes;
+            this.bucketIndex = bucketIndex;
+            this.lo = lo;
+            this.hi = hi;
+            this.offsets = offsets;
+            this.targets = targets;
+            this.weights = weights;
+        }
+
+        @Override
+        protected void compute() {
+            if (hi - lo > GRAIN) {
+                int mid = (lo + hi) >>> 1;
+                left = new Relaxation(nodes, bucketIndex, lo, mid, offsets, targets, weights);
+                right = new Relaxation(nodes, bucketIndex, mid, hi, offsets, targets, weights);
+                invokeAll(left, right);
+                return;
+            }
+
+            updateNode = new int[16];
+            updateFrom = new int[16];
+            updateDist = new long[16];
+            newlySettled = new int[bucketIndex < 0 ? 0 : 16];
+            for (int s = nodes.find(lo), k = lo; k < hi; s++) {
+                int[] array = nodes.arrays[s];
+                int shift = nodes.starts[s] - nodes.first[s];
+                for (int end = Math.min(hi, nodes.first[s] + nodes.lengths[s]); k < end; k++) {
+                    int u = array[k + shift];
+                    if (bucketIndex >= 0 && !enter(u)) continue;
+                    long du = dist.get(u);
+                    for (int e = offsets[u], last = offsets[u + 1]; e < last; e++) {
+                        int v = targets[e];
+                        long nd = du + weights[e];
+                        long current = dist.get(v);
+                        while (current > nd) {
+                            if (dist.compareAndSet(v, current, nd)) {
+                                log(v, u, nd);
+                                break;
+                            }
+                            current = dist.get(v);
+                        }
+                    }
+                }
+            }
+        }
+
+        // Whether u is still in the bucket and not yet relaxed this phase
+        private boolean enter(int u) {
+            if (dist.get(u) / delta != bucketIndex || inFrontier.getAndSet(u, phase) == phase) return false;
+            if (settledIn.getAndSet(u, round) != round) {
+                if (numSettled == newlySettled.length) newlySettled = Arrays.copyOf(newlySettled, numSettled * 2);
+                newlySettled[numSettled++] = u;
+            }
+            return true;
+        }
+
+        private void log(int v, int from, long d) {
+            if (numUpdates == updateNode.length) {
+                updateNode = Arrays.copyOf(updateNode, numUpdates * 2);
+                updateFrom = Arrays.copyOf(updateFrom, numUpdates * 2);
+                updateDist = Arrays.copyOf(updateDist, numUpdates * 2);
+            }
+            updateNode[numUpdates] = v;
+            updateFrom[numUpdates] = from;
+            updateDist[numUpdates++] = d;
+        }
+
+        // Runs once every leaf has finished relaxing. Distances only drop, so
+        // exactly one logged update per improved node matches its current
+        // distance; that one sets the parent and queues the node
+        void replay() {
+            long[] keys = new long[numUpdates];
+            int n = 0;
+            for (int k = 0; k < numUpdates; k++) {
+                int v = updateNode[k];
+                if (dist.get(v) != updateDist[k]) continue;
+                parent[v] = updateFrom[k];
+                keys[n++] = (dist.get(v) / delta % buckets.length) << 32 | v;
+            }
+            Arrays.sort(keys, 0, n);
+
+            queued = new int[n];
+            runBucket = new int[4];
+            runStart = new int[4];
+            for (int k = 0; k < n; k++) {
+                queued[k] = (int) keys[k];
+                int b = (int) (keys[k] >>> 32);
+                if (numRuns == 0 || runBucket[numRuns - 1] != b) {
+                    if (numRuns == runBucket.length) {
+                        runBucket = Arrays.copyOf(runBucket, numRuns * 2);
+                        runStart = Arrays.copyOf(runStart, numRuns * 2);
+                    }
+                    runBucket[numRuns] = b;
+                    runStart[numRuns++] = k;
+                }
+            }
+        }
+
+        // Link every leaf's runs into the buckets and its newly settled nodes
+        // into settled, in leaf order; returns the number of nodes queued
+        int link() {
+            if (left != null) return left.link() + right.link();
+            if (numSettled > 0) settled.add(newlySettled, 0, numSettled);
+            for (int r = 0; r < numRuns; r++) {
+                int end = r + 1 < numRuns ? runStart[r + 1] : queued.length;
+                bucket(runBucket[r]).add(queued, runStart[r], end - runStart[r]);
+            }
+            return queued.length;
+        }
+    }
+
+    private static final class Replay extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final Relaxation task;
+
+        Replay(Relaxation task) {
+            this.task = task;
+        }
+
+        @Override
+        protected void compute() {
+            if (task.left == null) {
+                task.replay();
+            } else {
+                invokeAll(new Replay(task.left), new Replay(task.right));
+            }
+        }
+    }
+
+    // Node lists gathered from many leaves without copying them: segment s
+    // holds arrays[s][starts[s] ..) and covers positions first[s] .. of the whole
+    private static final class Segments {
+        int[][] arrays = new int[4][];
+        int[] starts = new int[4];
+        int[] lengths = new int[4];
+        int[] first = new int[4];
+        int count;
+        int size;
+
+        void add(int[] array, int start, int length) {
+            if (count == arrays.length) {
+                arrays = Arrays.copyOf(arrays, count * 2);
+                starts = Arrays.copyOf(starts, count * 2);
+                lengths = Arrays.copyOf(lengths, count * 2);
+                first = Arrays.copyOf(first, count * 2);
+            }
+            arrays[count] = array;
+            starts[count] = start;
+            lengths[count] = length;
+            first[count++] = size;
+            size += length;
+        }
+
+        // Segment holding the given position
+        int find(int position) {
+            int lo = 0;
+            int hi = count - 1;
+            while (lo < hi) {
+                int mid = (lo + hi + 1) >>> 1;
+                if (first[mid] <= position) lo = mid;
+                else hi = mid - 1;
+            }
+            return lo;
+        }
+
+        void clear() {
+            Arrays.fill(arrays, 0, count, null);
+            count = 0;
+            size = 0;
+        }
+    }
+
+    private Segments bucket(int b) {
+        if (buckets[b] == null) buckets[b] = new Segments();
+        return buckets[b];
+    }
+
+    // Run body over consecutive slices of 0 .. numNodes on the pool
+    private void forRange(Slice body) {
+        SliceTask task = new SliceTask(body, 0, numNodes);
+        if (numNodes <= FILL_GRAIN) task.compute();
+        else pool.invoke(task);
+    }
+
+    private interface Slice {
+        void run(int lo, int hi);
+    }
+
+    private static final class SliceTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final Slice body;
+        private final int lo;
+        private final int hi;
+
+        SliceTask(Slice body, int lo, int hi) {
+            this.body = body;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        @Override
+        protected void compute() {
+            if (hi - lo > FILL_GRAIN) {
+                int mid = (lo + hi) >>> 1;
+                invokeAll(new SliceTask(body, lo, mid), new SliceTask(body, mid, hi));
+            } else {
+                body.run(lo, hi);
+            }
+        }
+    }
+
+    private void nextPhase() {
+        if (++phase == 0) {
+            for (int v = 0; v < numNodes; v++) inFrontier.set(v, 0);
+            phase = 1;
+        }
+    }
+
+    private void nextRound() {
+        if (++round == 0) {
+            for (int v = 0; v < numNodes; v++) settledIn.set(v, 0);
+            round = 1;
+        }
+    }
+
+    /**
+     * Cheapest-path tree computed by {@link #search(int)}.
+     */
+    public static final class Result {
+
+        private final int source;
+        private final long[] dist;
+        private final int[] parent;
+
+        private Result(int source, long[] dist, int[] parent) {
+            this.source = source;
+            this.dist = dist;
+            this.parent = parent;
+        }
+
+        /**
+         * Get the distance of every node from the source.
+         *
+         * @return distance per node, {@link ShortestPathSearch#UNREACHABLE} for
+         *         nodes that cannot be reached (the array is not copied)
+         */
+        public long[] getDistances() {
+            return dist;
+        }
+
+        /**
+         * Get the predecessor of every node on its cheapest path.
+         *
+         * @return parent per node, -1 for the source and unreachable nodes
+         *         (the array is not copied)
+         */
+        public int[] getParents() {
+            return parent;
+        }
+
+        /**
+         * Rebuild the cheapest path from the source to a node.
+         *
+         * @param target destination node index
+         * @return node indices of the path (source first), or null if target is unreachable
+         */
+        public int[] pathTo(int target) {
+            if (dist[target] == ShortestPathSearch.UNREACHABLE) return null;
+            int length = 1;
+            for (int v = target; v != source; v = parent[v]) length++;
+            int[] path = new int[length];
+            for (int v = target, i = length - 1; i >= 0; v = parent[v], i--) {
+                path[i] = v;
+            }
+            return path;
+        }
+    }
+}
@@ -0,0 +1,320 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Directed, weighted graph stored as an adjacency bit matrix, for dense small
+ * and medium graphs (up to a few thousand nodes).
+ *
+ * Row u is a run of 64-bit words whose set bits are u's successors; a second
+ * matrix holds the same bits per column (predecessors). Edge weights live in an
+ * n x n int matrix. Membership tests are a single bit test and set operations
+ * such as reachability process 64 nodes per word. Parallel edges collapse into
+ * one edge that keeps the weight of the first edge added, matching how
+ * {@link Graph#calculateCost} prices parallel edges. Neighbors are reported in
+ * ascending node order.
+ */
+public final class DenseGraph implements GraphView {
+
+    /** Largest node count whose weight matrix fits in a single array. */
+    public static final int MAX_NODES = 46340;
+
+    private final int numNodes;
+    private final int words; // 64-bit words per row
+    private final long[] rows;
+    private final long[] cols;
+    private final int[] weightMatrix;
+    private int numEdges;
+
+    /**
+     * Construct an empty dense graph with the specified number of nodes.
+     *
+     * @param numNodes number of nodes (indexed 0..numNodes-1)
+     * @throws IllegalArgumentException if numNodes exceeds {@link #MAX_NODES}
+     */
+    public DenseGraph(int numNodes) {
+        if (numNodes > MAX_NODES) {
+            throw new IllegalArgumentException("Too many nodes for a dense graph: " + numNodes);
+        }
+        this.numNodes = numNodes;
+        this.words = (numNodes + 63) >>> 6;
+        this.rows = new long[numNodes * words];
+        this.cols = new long[numNodes * words];
+        this.weightMatrix = new int[numNodes * numNodes];
+    }
+
+    /**
+     * Copy any graph into a dense graph.
+     *
+     * @param graph source graph
+     * @return dense copy of the graph
+     */
+    public static DenseGraph copyOf(GraphView graph) {
+        DenseGraph g = new DenseGraph(graph.getNumNodes());
+        EdgeCursor c = graph.newCursor();
+        for (int u = 0; u < graph.getNumNodes(); u++) {
+            c.reset(u);
+            while (c.next()) g.addEdge(u, c.getTo(), c.getWeight());
+        }
+        return g;
+    }
+
+    /**
+     * Add a directed edge. If the edge already exists this call has no effect.
+     *
+     * @param from source node index
+     * @param to destination node index
+     * @param weight edge weight (cost)
+     */
+    public void addEdge(int from, int to, int weight) {
+        int bit = from * words + (to >>> 6);
+        long mask = 1L << to;
+        if ((rows[bit] & mask) != 0) return;
+
+        rows[bit] |= mask;
+        cols[to * words + (from >>> 6)] |= 1L << from;
+        weightMatrix[from * numNodes + to] = weight;
+        numEdges++;
+    }
+
+    @Override
+    public int getNumNodes() {
+        return numNodes;
+    }
+
+    @Override
+    public int getNumEdges() {
+        return numEdges;
+    }
+
+    @Override
+    public int getDegree(int node) {
+        int d = 0;
+        for (int i = node * words, end = i + words; i < end; i++) {
+            d += Long.bitCount(rows[i]);
+        }
+        return d;
+    }
+
+    /**
+     * Check whether there is an edge from {@code from} to {@code to}.
+     *
+     * @param from source node index
+     * @param to destination node index
+     * @return true if the edge exists
+     */
+    public boolean hasEdge(int from, int to) {
+        return (rows[from * words + (to >>> 6)] & (1L << to)) != 0;
+    }
+
+    /**
+     * Get the weight of the edge from {@code from} to {@code to}.
+     *
+     * @param from source node index
+     * @param to destination node index
+     * @return edge weight
+     * @throws NoSuchElementException if there is no such edge
+     */
+    public int getEdgeWeight(int from, int to) {
+        if (!hasEdge(from, to)) {
+            throw new NoSuchElementException("No edge " + from + " -> " + to);
+        }
+        return weightMatrix[from * numNodes + to];
+    }
+
+    @Override
+    public void forEachNeighbor(int node, EdgeVisitor visitor) {
+        int base = node * words;
+        for (int w = 0; w < words; w++) {
+            for (long bits = rows[base + w]; bits != 0; bits &= bits - 1) {
+                int to = (w << 6) + Long.numberOfTrailingZeros(bits);
+                visitor.visit(to, weightMatrix[node * numNodes + to]);
+            }
+        }
+    }
+
+    @Override
+    public EdgeCursor newCursor() {
+        return new Cursor();
+    }
+
+    /**
+     * Compute the set of nodes reachable from a source (including the source),
+     * expanding a whole frontier per step by OR-ing successor rows word by word.
+     *
+     * @param source start node index
+     * @return bitset of reachable nodes, bit v of word v/64 set if v is reachable
+     */
+    public long[] reachableFrom(int source) {
+        long[] visited = new long[words];
+        long[] frontier = new long[words];
+        long[] next = new long[words];
+        frontier[source >>> 6] = 1L << source;
+        visited[source >>> 6] = 1L << source;
+
+        boolean any = true;
+        while (any) {
+            Arrays.fill(next, 0);
+            for (int w = 0; w < words; w++) {
+                for (long bits = frontier[w]; bits != 0; bits &= bits - 1) {
+                    int u = (w << 6) + Long.numberOfTrailingZeros(bits);
+                    int base = u * words;
+                    for (int i = 0; i < words; i++) next[i] |= rows[base + i];
+                }
+            }
+
+            any = false;
+            for (int i = 0; i < words; i++) {
+                next[i] &= ~visited[i];
+                visited[i] |= next[i];
+                any |= next[i] != 0;
+            }
+            long[] t = frontier;
+            frontier = next;
+            next = t;
+        }
+        return visited;
+    }
+
+    /**
+     * Check whether {@code end} can be reached from {@code start}.
+     *
+     * @param start start node index
+     * @param end destination node index
+     * @return true if a path exists
+     */
+    public boolean isReachable(int start, int end) {
+        return (reachableFrom(start)[end >>> 6] & (1L << end)) != 0;
+    }
+
+    /**
+     * Find any path from start to end using depth-first search (DFS), visiting
+     * neighbors in ascending node order.
+     *
+     * @param start start node index
+     * @param end destination node index
+     * @return list of node indices forming the path, or null if none exists
+     * @see Graph#findAnyPath(int, int)
+     */
+    public List<Integer> findAnyPath(int start, int end) {
+        return GraphSearch.findAnyPath(this, start, end);
+    }
+
+    /**
+     * Calculate the total cost (sum of weights) for the given path.
+     * Hops without an edge contribute nothing.
+     *
+     * @param path list of node indices in traversal order
+     * @return total edge weight sum for the path
+     */
+    public int calculateCost(List<Integer> path) {
+        int cost = 0;
+        for (int i = 0; i < path.size() - 1; i++) {
+            int from = path.get(i);
+            int to = path.get(i + 1);
+            if (hasEdge(from, to)) cost += weightMatrix[from * numNodes + to];
+        }
+        return cost;
+    }
+
+    /**
+     * Detect any directed cycle. Nodes without a successor are peeled off
+     * repeatedly (using the column bits to find their predecessors); whatever
+     * survives lies on or leads into a cycle, and following the first surviving
+     * successor from any survivor must close one. The cycle reported may differ
+     * from the one DFS in {@link Graph#findCycle()} would find.
+     *
+     * @return list of node indices forming a cycle, or null if the graph is acyclic
+     */
+    public List<Integer> findCycle() {
+        long[] alive = new long[words];
+        int[] outCount = new int[numNodes];
+        int[] sinks = new int[numNodes];
+        int numSinks = 0;
+
+        for (int u = 0; u < numNodes; u++) {
+            alive[u >>> 6] |= 1L << u;
+            outCount[u] = getDegree(u);
+            if (outCount[u] == 0) sinks[numSinks++] = u;
+        }
+
+        // Peel sinks; each removal may turn predecessors into sinks
+        while (numSinks > 0) {
+            int v = sinks[--numSinks];
+            alive[v >>> 6] &= ~(1L << v);
+            int base = v * words;
+            for (int w = 0; w < words; w++) {
+                for (long bits = cols[base + w]; bits != 0; bits &= bits - 1) {
+                    int u = (w << 6) + Long.numberOfTrailingZeros(bits);
+                    if (--outCount[u] == 0) sinks[numSinks++] = u;
+                }
+            }
+        }
+
+        int start = -1;
+        for (int w = 0; w < words && start < 0; w++) {
+            if (alive[w] != 0) start = (w << 6) + Long.numberOfTrailingZeros(alive[w]);
+        }
+        if (start < 0) return null; // no cycle
+
+        // Walk surviving successors until a node repeats
+        int[] seenAt = new int[numNodes];
+        Arrays.fill(seenAt, -1);
+        List<Integer> walk = new ArrayList<>();
+        int u = start;
+        while (seenAt[u] < 0) {
+            seenAt[u] = walk.size();
+            walk.add(u);
+            u = firstAliveSuccessor(u, alive);
+        }
+        return new ArrayList<>(walk.subList(seenAt[u], walk.size()));
+    }
+
+    private int firstAliveSuccessor(int u, long[] alive) {
+        int base = u * words;
+        for (int w = 0; w < words; w++) {
+            long bits = rows[base + w] & alive[w];
+            if (bits != 0) return (w << 6) + Long.numberOfTrailingZeros(bits);
+        }
+        throw new IllegalStateException("Node " + u + " has no surviving successor");
+    }
+
+    // Cursor scanning one row's set bits in ascending order
+    private final class Cursor implements EdgeCursor {
+        private int node;
+        private int base;
+        private int word;
+        private long bits;
+        private int to;
+
+        @Override
+        public void reset(int node) {
+            this.node = node;
+            this.base = node * words;
+            this.word = -1;
+            this.bits = 0;
+        }
+
+        @Override
+        public boolean next() {
+            while (bits == 0) {
+                if (++word >= words) return false;
+                bits = rows[base + word];
+            }
+            to = (word << 6) + Long.numberOfTrailingZeros(bits);
+            bits &= bits - 1;
+            return true;
+        }
+
+        @Override
+        public int getTo() {
+            return to;
+        }
+
+        @Override
+        public int getWeight() {
+            return weightMatrix[node * numNodes + to];
+        }
+    }
+}
@@ -0,0 +1,105 @@
+import java.util.Arrays;
+
+/**
+ * Cheapest-path search for graphs with small non-negative integer weights,
+ * using Dial's bucket queue instead of a comparison heap.
+ *
+ * With maximum edge weight C, every queued node has a tentative distance in
+ * [d, d + C] where d is the distance being settled, so C + 1 circular buckets
+ * indexed by {@code distance % (C + 1)} are enough. Each bucket is a doubly
+ * linked list threaded through int arrays, so queuing, moving and removing a
+ * node are O(1) and allocation-free, and a whole search costs O(V + E + D)
+ * where D is the largest distance reached.
+ *
+ * @see ShortestPathSearch#create(GraphView)
+ */
+public final class DialSearch extends ShortestPathSearch {
+
+    private static final int NONE = -1;
+
+    private final int[] head; // first node per bucket
+    private final int[] next;
+    private final int[] prev;
+    private final int[] queued; // node is in a bucket iff queued[v] == epoch
+
+    /**
+     * Prepare a search over a graph. The graph must not gain nodes while this
+     * instance is in use.
+     *
+     * @param graph graph to search
+     * @throws IllegalArgumentException if the graph has a negative edge weight
+     */
+    public DialSearch(GraphView graph) {
+        this(graph, maxWeightOf(graph));
+    }
+
+    // maxWeight must come from maxWeightOf(graph), which also validated the weights
+    DialSearch(GraphView graph, int maxWeight) {
+        super(graph, maxWeight);
+        int numNodes = graph.getNumNodes();
+        this.head = new int[maxWeight + 1];
+        this.next = new int[numNodes];
+        this.prev = new int[numNodes];
+        this.queued = new int[numNodes];
+    }
+
+    @Override
+    protected void run(int source, int target) {
+        Arrays.fill(head, NONE);
+        int buckets = head.length;
+
+        stamp[source] = epoch;
+        dist[source] = 0;
+        parent[source] = -1;
+        link(source, 0);
+        int count = 1;
+        long current = 0;
+
+        while (count > 0) {
+            int b = (int) (current % buckets);
+            while (head[b] == NONE) {
+                current++;
+                b = (int) (current % buckets);
+            }
+
+            int u = head[b];
+            unlink(u, b);
+            count--;
+            if (u == target) return;
+
+            cursor.reset(u);
+            while (cursor.next()) {
+                int v = cursor.getTo();
+                long nd = current + cursor.getWeight();
+                if (stamp[v] != epoch) {
+                    stamp[v] = epoch;
+                } else if (nd >= dist[v]) {
+                    continue;
+                } else if (queued[v] == epoch) {
+                    unlink(v, (int) (dist[v] % buckets));
+                    count--;
+                }
+                dist[v] = nd;
+                parent[v] = u;
+                link(v, (int) (nd % buckets));
+                count++;
+            }
+        }
+    }
+
+    private void link(int v, int bucket) {
+        int first = head[bucket];
+        next[v] = first;
+        prev[v] = NONE;
+        if (first != NONE) prev[first] = v;
+        head[bucket] = v;
+        queued[v] = epoch;
+    }
+
+    private void unlink(int v, int bucket) {
+        if (prev[v] != NONE) next[prev[v]] = next[v];
+        else head[bucket] = next[v];
+        if (next[v] != NONE) prev[next[v]] = prev[v];
+        queued[v] = 0;
+    }
+}
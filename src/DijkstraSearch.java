@@ -0,0 +1,57 @@
+/**
+ * Cheapest-path search (Dijkstra's algorithm) over a {@link GraphView} with
+ * non-negative edge weights, using an allocation-free {@link IntDaryHeap}.
+ *
+ * @see ShortestPathSearch
+ */
+public final class DijkstraSearch extends ShortestPathSearch {
+
+    private final IntDaryHeap heap;
+
+    /**
+     * Prepare a search over a graph. The graph must not gain nodes while this
+     * instance is in use.
+     *
+     * @param graph graph to search
+     * @throws IllegalArgumentException if the graph has a negative edge weight
+     */
+    public DijkstraSearch(GraphView graph) {
+        this(graph, maxWeightOf(graph));
+    }
+
+    // maxWeight must come from maxWeightOf(graph), which also validated the weights
+    DijkstraSearch(GraphView graph, int maxWeight) {
+        super(graph, maxWeight);
+        this.heap = new IntDaryHeap(graph.getNumNodes());
+    }
+
+    @Override
+    protected void run(int source, int target) {
+        heap.clear();
+
+        stamp[source] = epoch;
+        dist[source] = 0;
+        parent[source] = -1;
+        heap.insertOrDecrease(source, 0);
+
+        while (!heap.isEmpty()) {
+            int u = heap.poll();
+            if (u == target) return;
+
+            long du = dist[u];
+            cursor.reset(u);
+            while (cursor.next()) {
+                int v = cursor.getTo();
+                long nd = du + cursor.getWeight();
+                if (stamp[v] != epoch) {
+                    stamp[v] = epoch;
+                } else if (nd >= dist[v]) {
+                    continue;
+                }
+                dist[v] = nd;
+                parent[v] = u;
+                heap.insertOrDecrease(v, nd);
+            }
+        }
+    }
+}
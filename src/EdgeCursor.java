@@ -0,0 +1,43 @@
+/**
+ * Reusable cursor over the outgoing edges of a single node.
+ *
+ * Typical use:
+ * <pre>
+ *     cursor.reset(node);
+ *     while (cursor.next()) {
+ *         int to = cursor.getTo();
+ *         int w  = cursor.getWeight();
+ *     }
+ * </pre>
+ * Edges are reported in the storage order of the underlying graph.
+ */
+public interface EdgeCursor {
+
+    /**
+     * Position the cursor before the first outgoing edge of the given node.
+     *
+     * @param node node index
+     */
+    void reset(int node);
+
+    /**
+     * Advance to the next outgoing edge.
+     *
+     * @return true if the cursor now points at an edge, false if the node has no more edges
+     */
+    boolean next();
+
+    /**
+     * Get the destination node index of the current edge.
+     *
+     * @return destination node index
+     */
+    int getTo();
+
+    /**
+     * Get the weight (cost) of the current edge.
+     *
+     * @return edge weight
+     */
+    int getWeight();
+}
@@ -0,0 +1,217 @@
+import java.util.Arrays;
+
+/**
+ * Lookup structure answering "is there an edge from u to v, and where is it?"
+ * without scanning u's adjacency list.
+ *
+ * Ordinary nodes keep their distinct destinations in a sorted slice that is
+ * searched with binary search (O(log d)). Nodes whose degree exceeds
+ * {@link #HASH_THRESHOLD} get a primitive open-addressing hash table instead
+ * (expected O(1)). For parallel edges the index remembers the first one in the
+ * node's edge order, which matches how {@link GraphSearch#calculateCost} picks
+ * an edge.
+ * <p>
+ * The index is a snapshot: it does not observe edges added to the graph after
+ * it was built. Graphs that change one node at a time instead keep a separate
+ * lookup per node (see {@link #buildNode(int[], int)}), so adding an edge only
+ * affects the lookup of its source.
+ */
+public final class EdgeIndex {
+
+    /** Returned by {@link #indexOf(int, int)} when there is no such edge. */
+    public static final int NO_EDGE = -1;
+
+    /** Out-degree above which a node is indexed with a hash table. */
+    public static final int HASH_THRESHOLD = 32;
+
+    // Degree up to which a plain scan of the adjacency list beats building/probing the index
+    static final int LINEAR_SCAN_DEGREE = 8;
+
+    private static final int EMPTY = -1;
+
+    private final int[] offsets;       // sorted slice per node (empty for hashed nodes)
+    private final int[] sortedTargets;
+    private final int[] positions;
+    private final int[][] tables;      // interleaved key/value tables for hashed nodes, else null
+
+    private EdgeIndex(int[] offsets, int[] sortedTargets, int[] positions, int[][] tables) {
+        this.offsets = offsets;
+        this.sortedTargets = sortedTargets;
+        this.positions = positions;
+        this.tables = tables;
+    }
+
+    /**
+     * Build an index over the current edges of a graph.
+     *
+     * @param graph graph to index
+     * @return edge lookup index
+     */
+    public static EdgeIndex build(GraphView graph) {
+        int numNodes = graph.getNumNodes();
+        int[] offsets = new int[numNodes + 1];
+        for (int u = 0; u < numNodes; u++) {
+            int d = graph.getDegree(u);
+            offsets[u + 1] = offsets[u] + (d > HASH_THRESHOLD ? 0 : d);
+        }
+
+        int[] sortedTargets = new int[offsets[numNodes]];
+        int[] positions = new int[offsets[numNodes]];
+        int[][] tables = new int[numNodes][];
+        long[] pairs = new long[16];
+        EdgeCursor c = graph.newCursor();
+
+        for (int u = 0; u < numNodes; u++) {
+            int d = graph.getDegree(u);
+            if (pairs.length < d) pairs = new long[Math.max(d, pairs.length * 2)];
+
+            // (target, position) pairs sort by target, then by first occurrence
+            int n = 0;
+            c.reset(u);
+            while (c.next()) {
+                pairs[n] = ((long) c.getTo() << 32) | n;
+                n++;
+            }
+            Arrays.sort(pairs, 0, n);
+
+            if (d > HASH_THRESHOLD) {
+                tables[u] = buildTable(pairs, n);
+                continue;
+            }
+
+            int pos = offsets[u];
+            for (int i = 0; i < n; i++) {
+                int to = (int) (pairs[i] >>> 32);
+                if (i > 0 && to == (int) (pairs[i - 1] >>> 32)) continue; // later parallel edge
+                sortedTargets[pos] = to;
+                positions[pos] = (int) pairs[i];
+                pos++;
+            }
+            // Slices shrink when parallel edges were dropped; pad with an unreachable target
+            Arrays.fill(sortedTargets, pos, offsets[u + 1], Integer.MAX_VALUE);
+        }
+
+        return new EdgeIndex(offsets, sortedTargets, positions, tables);
+    }
+
+    // Open-addressing table of at most 50% load; keys at even, values at odd slots
+    private static int[] buildTable(long[] pairs, int n) {
+        int capacity = Integer.highestOneBit(Math.max(4, n) * 2 - 1) << 1;
+        int[] table = new int[capacity * 2];
+        Arrays.fill(table, EMPTY);
+        int mask = capacity - 1;
+
+        for (int i = 0; i < n; i++) {
+            int to = (int) (pairs[i] >>> 32);
+            int slot = hash(to) & mask;
+            while (table[2 * slot] != EMPTY && table[2 * slot] != to) {
+                slot = (slot + 1) & mask;
+            }
+            if (table[2 * slot] == EMPTY) { // first occurrence wins
+                table[2 * slot] = to;
+                table[2 * slot + 1] = (int) pairs[i];
+            }
+        }
+        return table;
+    }
+
+    private static int hash(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * Find the position of the first edge from {@code from} to {@code to} in
+     * {@code from}'s edge order (as reported by an {@link EdgeCursor}).
+     *
+     * @param from source node index
+     * @param to destination node index
+     * @return position within from's edges, or {@link #NO_EDGE}
+     */
+    public int indexOf(int from, int to) {
+        int[] table = tables[from];
+        if (table != null) return probe(table, to);
+
+        int i = Arrays.binarySearch(sortedTargets, offsets[from], offsets[from + 1], to);
+        return i >= 0 ? positions[i] : NO_EDGE;
+    }
+
+    private static int probe(int[] table, int to) {
+        int mask = (table.length >>> 1) - 1;
+        int slot = hash(to) & mask;
+        int key;
+        while ((key = table[2 * slot]) != EMPTY) {
+            if (key == to) return table[2 * slot + 1];
+            slot = (slot + 1) & mask;
+        }
+        return NO_EDGE;
+    }
+
+    /*
+     * Per-node lookups. A node of degree d up to HASH_THRESHOLD gets its distinct
+     * destinations sorted in the first half of the array and their positions in
+     * the second half; a larger node gets a hash table as above, which can also
+     * take new edges in place.
+     */
+
+    // Lookup over the first degree entries of one node's destination array
+    static int[] buildNode(int[] targets, int degree) {
+        long[] pairs = new long[degree];
+        for (int i = 0; i < degree; i++) {
+            pairs[i] = ((long) targets[i] << 32) | i;
+        }
+        if (degree > HASH_THRESHOLD) return buildTable(pairs, degree);
+
+        Arrays.sort(pairs);
+        int n = 0;
+        for (int i = 0; i < degree; i++) {
+            if (i > 0 && pairs[i] >>> 32 == pairs[i - 1] >>> 32) continue; // later parallel edge
+            pairs[n++] = pairs[i];
+        }
+        int[] slice = new int[2 * n];
+        for (int i = 0; i < n; i++) {
+            slice[i] = (int) (pairs[i] >>> 32);
+            slice[n + i] = (int) pairs[i];
+        }
+        return slice;
+    }
+
+    // Position of the first edge to `to` in a lookup built for a node of this degree
+    static int indexOfNode(int[] lookup, int degree, int to) {
+        if (degree > HASH_THRESHOLD) return probe(lookup, to);
+        int n = lookup.length >>> 1;
+        int i = Arrays.binarySearch(lookup, 0, n, to);
+        return i >= 0 ? lookup[n + i] : NO_EDGE;
+    }
+
+    // Record edge `position` (the node's new degree minus one) in the node's lookup.
+    // Returns the updated lookup, or null if it must be rebuilt on next use.
+    static int[] addToNode(int[] lookup, int[] targets, int position) {
+        int degree = position + 1;
+        if (degree <= HASH_THRESHOLD) return null;
+        if (degree == HASH_THRESHOLD + 1 || degree * 2 > lookup.length >>> 1) {
+            return buildNode(targets, degree); // switching to, or growing, the table
+        }
+        int to = targets[position];
+        int mask = (lookup.length >>> 1) - 1;
+        int slot = hash(to) & mask;
+        while (lookup[2 * slot] != EMPTY) {
+            if (lookup[2 * slot] == to) return lookup; // first edge wins
+            slot = (slot + 1) & mask;
+        }
+        lookup[2 * slot] = to;
+        lookup[2 * slot + 1] = position;
+        return lookup;
+    }
+
+    /**
+     * Check whether the graph has an edge from {@code from} to {@code to}.
+     *
+     * @param from source node index
+     * @param to destination node index
+     * @return true if at least one such edge exists
+     */
+    public boolean hasEdge(int from, int to) {
+        return indexOf(from, to) != NO_EDGE;
+    }
+}
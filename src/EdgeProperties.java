@@ -0,0 +1,187 @@
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Columnar store of extra per-edge attributes (latency, capacity, timestamps, ...)
+ * for a {@link CsrGraph}.
+ *
+ * Every column is a primitive array with one slot per edge, indexed by the CSR
+ * edge index ({@link CsrGraph#getEdgeStart(int)} .. {@link CsrGraph#getEdgeEnd(int)},
+ * or {@link CsrGraph#findEdge(int, int)}). An attribute therefore costs 4 bytes
+ * per edge (int/float) or 8 bytes (long), with no per-edge objects. Columns are
+ * returned as the backing arrays, so they can be filled and read directly.
+ */
+public final class EdgeProperties {
+
+    private final CsrGraph graph;
+    private final Map<String, int[]> intColumns = new HashMap<>();
+    private final Map<String, float[]> floatColumns = new HashMap<>();
+    private final Map<String, long[]> longColumns = new HashMap<>();
+    private final Set<String> names = new LinkedHashSet<>();
+
+    /**
+     * Create an empty property store for a graph.
+     *
+     * @param graph graph whose edges the columns describe
+     */
+    public EdgeProperties(CsrGraph graph) {
+        this.graph = graph;
+    }
+
+    /**
+     * Add an int column, initialized to 0 for every edge.
+     *
+     * @param name column name
+     * @return backing array, indexed by edge index
+     * @throws IllegalArgumentException if a column with that name already exists
+     */
+    public int[] addIntColumn(String name) {
+        int[] column = new int[graph.getNumEdges()];
+        register(name);
+        intColumns.put(name, column);
+        return column;
+    }
+
+    /**
+     * Add a float column, initialized to 0 for every edge.
+     *
+     * @param name column name
+     * @return backing array, indexed by edge index
+     * @throws IllegalArgumentException if a column with that name already exists
+     */
+    public float[] addFloatColumn(String name) {
+        float[] column = new float[graph.getNumEdges()];
+        register(name);
+        floatColumns.put(name, column);
+        return column;
+    }
+
+    /**
+     * Add a long column, initialized to 0 for every edge.
+     *
+     * @param name column name
+     * @return backing array, indexed by edge index
+     * @throws IllegalArgumentException if a column with that name already exists
+     */
+    public long[] addLongColumn(String name) {
+        long[] column = new long[graph.getNumEdges()];
+        register(name);
+        longColumns.put(name, column);
+        return column;
+    }
+
+    /**
+     * Get an existing int column.
+     *
+     * @param name column name
+     * @return backing array, indexed by edge index
+     * @throws IllegalArgumentException if there is no int column with that name
+     */
+    public int[] getIntColumn(String name) {
+        return require(intColumns.get(name), name, "int");
+    }
+
+    /**
+     * Get an existing float column.
+     *
+     * @param name column name
+     * @return backing array, indexed by edge index
+     * @throws IllegalArgumentException if there is no float column with that name
+     */
+    public float[] getFloatColumn(String name) {
+        return require(floatColumns.get(name), name, "float");
+    }
+
+    /**
+     * Get an existing long column.
+     *
+     * @param name column name
+     * @return backing array, indexed by edge index
+     * @throws IllegalArgumentException if there is no long column with that name
+     */
+    public long[] getLongColumn(String name) {
+        return require(longColumns.get(name), name, "long");
+    }
+
+    /**
+     * Return the names of all columns in the order they were added.
+     *
+     * @return read-only view of the column names
+     */
+    public Set<String> getColumnNames() {
+        return Collections.unmodifiableSet(names);
+    }
+
+    /**
+     * Approximate memory used by all columns.
+     *
+     * @return size in bytes of the column arrays
+     */
+    public long getSizeInBytes() {
+        long edges = graph.getNumEdges();
+        return edges * (Integer.BYTES * intColumns.size() + Float.BYTES * floatColumns.size()
+                + Long.BYTES * longColumns.size());
+    }
+
+    /**
+     * Sum an int or long column along a path, like {@link CsrGraph#calculateCost(List)}
+     * does with edge weights. The sum is kept in a long, so it is exact. For
+     * every hop the first matching edge is used; hops without an edge
+     * contribute nothing.
+     *
+     * @param path list of node indices in traversal order
+     * @param name int or long column to sum
+     * @return total of the column over the path's edges
+     * @throws IllegalArgumentException if there is no int or long column with that name
+     */
+    public long calculateCost(List<Integer> path, String name) {
+        int[] ints = intColumns.get(name);
+        long[] longs = ints == null ? require(longColumns.get(name), name, "int or long") : null;
+
+        long cost = 0;
+        for (int i = 0; i < path.size() - 1; i++) {
+            int e = graph.findEdge(path.get(i), path.get(i + 1));
+            if (e < 0) continue;
+            cost += ints != null ? ints[e] : longs[e];
+        }
+        return cost;
+    }
+
+    /**
+     * Sum a float column along a path, as {@link #calculateCost(List, String)}
+     * does for integral columns. The sum is kept in a double.
+     *
+     * @param path list of node indices in traversal order
+     * @param name float column to sum
+     * @return total of the column over the path's edges
+     * @throws IllegalArgumentException if there is no float column with that name
+     */
+    public double calculateFloatCost(List<Integer> path, String name) {
+        float[] floats = getFloatColumn(name);
+
+        double cost = 0;
+        for (int i = 0; i < path.size() - 1; i++) {
+            int e = graph.findEdge(path.get(i), path.get(i + 1));
+            if (e < 0) continue;
+            cost += floats[e];
+        }
+        return cost;
+    }
+
+    private void register(String name) {
+        if (!names.add(name)) {
+            throw new IllegalArgumentException("Edge property '" + name + "' already exists");
+        }
+    }
+
+    private static <T> T require(T column, String name, String type) {
+        if (column == null) {
+            throw new IllegalArgumentException("No " + type + " edge property '" + name + "'");
+        }
+        return column;
+    }
+}
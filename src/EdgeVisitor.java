@@ -0,0 +1,16 @@
+/**
+ * Callback receiving the outgoing edges of a node as primitive values.
+ *
+ * @see GraphView#forEachNeighbor(int, EdgeVisitor)
+ */
+@FunctionalInterface
+public interface EdgeVisitor {
+
+    /**
+     * Visit one directed edge.
+     *
+     * @param to destination node index
+     * @param weight edge weight (cost)
+     */
+    void visit(int to, int weight);
+}
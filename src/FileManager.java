@@ -1,5 +1,8 @@
+import java.io.BufferedReader;
+import java.io.FileReader;
 import java.io.PrintWriter;
 import java.util.List;
+import java.util.function.ToIntFunction;
 
 /**
  * Utility for persisting graphs and related information to disk.
@@ -9,6 +12,9 @@ import java.util.List;
  * - adjacency list (one line per node)
  * - the last discovered path (or "None")
  * - the last discovered cycle (or "None")
+ *
+ * It can also import real-world edge lists whose node identifiers are
+ * arbitrary 64-bit numbers or strings.
  */
 public class FileManager {
 
@@ -32,12 +38,13 @@ public class FileManager {
             out.println();
 
             out.println("Adjacency List:");
+            EdgeCursor c = graph.newCursor();
             for (int i = 0; i < graph.getNumNodes(); i++) {
                 out.print(i + " -> ");
 
-                // use Graph.getNeighbors(int) (existing API) instead of nonexistent getAdj
-                for (Edge e : graph.getNeighbors(i)) {
-                    out.print("(" + e.getTo() + ", w=" + e.getWeight() + ") ");
+                c.reset(i);
+                while (c.next()) {
+                    out.print("(" + c.getTo() + ", w=" + c.getWeight() + ") ");
                 }
                 out.println();
             }
@@ -56,4 +63,61 @@ public class FileManager {
             System.out.println("Error saving file: " + e.getMessage());
         }
     }
+
+    /**
+     * Import a whitespace-separated edge list with numeric node identifiers, one
+     * edge per line as {@code source target [weight]} (weight defaults to 1).
+     * Lines starting with '#' or '%' are treated as comments. Identifiers may be
+     * sparse or 64-bit; they are mapped to dense node indices through {@code ids},
+     * which can afterwards translate paths and cycles back.
+     *
+     * @param filename edge list to read
+     * @param ids dictionary receiving the identifier mapping
+     * @return imported graph, or null if the file could not be read
+     */
+    public static Graph importEdgeList(String filename, LongIdMap ids) {
+        return importEdgeList(filename, token -> ids.getOrAssign(Long.parseLong(token)));
+    }
+
+    /**
+     * Import a whitespace-separated edge list with string node names, in the
+     * same format as {@link #importEdgeList(String, LongIdMap)}.
+     *
+     * @param filename edge list to read
+     * @param ids dictionary receiving the name mapping
+     * @return imported graph, or null if the file could not be read
+     */
+    public static Graph importEdgeList(String filename, StringIdMap ids) {
+        return importEdgeList(filename, ids::intern);
+    }
+
+    private static Graph importEdgeList(String filename, ToIntFunction<String> ids) {
+        Graph graph = new Graph(0);
+
+        try (BufferedReader in = new BufferedReader(new FileReader(filename))) {
+            String line;
+            int lineNumber = 0;
+            while ((line = in.readLine()) != null) {
+                lineNumber++;
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#") || line.startsWith("%")) continue;
+
+                String[] parts = line.split("\\s+");
+                if (parts.length < 2) {
+                    throw new IllegalArgumentException("Line " + lineNumber + ": expected 'source target [weight]'");
+                }
+                int from = ids.applyAsInt(parts[0]);
+                int to = ids.applyAsInt(parts[1]);
+                int w = parts.length > 2 ? Integer.parseInt(parts[2]) : 1;
+
+                while (graph.getNumNodes() <= Math.max(from, to)) graph.addNode();
+                graph.addEdge(from, to, w);
+            }
+            return graph;
+
+        } catch (Exception e) {
+            System.out.println("Error loading file: " + e.getMessage());
+            return null;
+        }
+    }
 }
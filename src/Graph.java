@@ -1,17 +1,44 @@
 import java.util.*;
+import java.util.stream.IntStream;
 
 /**
  * Directed, weighted graph representation.
  *
- * Nodes are indexed 0..numNodes-1. The adjacency list is stored as a map
- * from node index to a list of outgoing {@link Edge} objects. The class
- * provides utilities to generate a random graph, print it, find a path
- * between two nodes, compute path cost, and detect a cycle.
+ * Nodes are indexed 0..numNodes-1. The adjacency list is stored per node as
+ * two parallel, growable int arrays (destinations and weights) indexed directly
+ * by node id, so adding or visiting an edge never allocates an {@link Edge} or
+ * boxes a node index. Hub nodes (out-degree of at least {@link #HUB_DEGREE})
+ * additionally keep their destinations in an {@link IntBitmap}, maintained as
+ * edges are added, so membership tests on them stay fast without touching the
+ * long tail of low-degree nodes. The class provides utilities to generate a
+ * random graph, print it, find a path between two nodes, compute path cost,
+ * and detect a cycle.
  */
-public class Graph {
+public class Graph implements GraphView {
+
+    /** Out-degree at which a node starts keeping a destination bitmap. */
+    public static final int HUB_DEGREE = 256;
+
+    // Initial capacity of a node's edge arrays once its first edge is added
+    private static final int INITIAL_CAPACITY = 4;
+    private static final int[] NO_EDGES = new int[0];
 
     private int numNodes;
-    private Map<Integer, List<Edge>> adj;
+    private int numEdges;
+    private int[] degree;
+    private int[][] targets;
+    private int[][] weights;
+    private IntBitmap[] hubTargets; // null until the first node becomes a hub
+
+    // Per-node edge lookups built on demand; adding an edge only updates or
+    // drops its source's entry (see EdgeIndex.buildNode)
+    private int[][] edgeLookup; // null until the first indexed lookup
+
+    // Whole-graph indexes built on demand; dropped whenever an edge is added
+    private CsrGraph reverse;
+    private ShortestPathSearch cheapest;
+    private int cheapestStart = -1; // query the cheapest search last answered
+    private int cheapestEnd = -1;
 
     /**
      * Construct an empty graph with the specified number of nodes.
@@ -21,11 +48,67 @@ public class Graph {
      */
     public Graph(int numNodes) {
         this.numNodes = numNodes;
-        adj = new HashMap<>();
+        degree = new int[numNodes];
+        targets = new int[numNodes][];
+        weights = new int[numNodes][];
 
-        for (int i = 0; i < numNodes; i++) {
-            adj.put(i, new ArrayList<>());
+        Arrays.fill(targets, NO_EDGES);
+        Arrays.fill(weights, NO_EDGES);
+    }
+
+    /**
+     * Append a new node without edges.
+     *
+     * @return index of the new node (the previous node count)
+     */
+    public int addNode() {
+        if (numNodes == degree.length) {
+            int capacity = Math.max(16, numNodes * 2);
+            degree = Arrays.copyOf(degree, capacity);
+            targets = Arrays.copyOf(targets, capacity);
+            weights = Arrays.copyOf(weights, capacity);
+            Arrays.fill(targets, numNodes, capacity, NO_EDGES);
+            Arrays.fill(weights, numNodes, capacity, NO_EDGES);
+            if (hubTargets != null) hubTargets = Arrays.copyOf(hubTargets, capacity);
+            if (edgeLookup != null) edgeLookup = Arrays.copyOf(edgeLookup, capacity);
         }
+        reverse = null;
+        cheapest = null;
+        return numNodes++;
+    }
+
+    /**
+     * Create a mutable graph with the same edges as a CSR graph. Every node's
+     * edge arrays are allocated at exactly its degree.
+     *
+     * @param csr source graph
+     * @return new mutable graph
+     */
+    static Graph fromCsr(CsrGraph csr) {
+        Graph g = new Graph(csr.getNumNodes());
+
+        IntStream.range(0, g.numNodes).parallel().forEach(u -> {
+            int start = csr.getEdgeStart(u);
+            int d = csr.getEdgeEnd(u) - start;
+            if (d == 0) return;
+
+            int[] nodeTargets = new int[d];
+            int[] nodeWeights = new int[d];
+            for (int i = 0; i < d; i++) {
+                nodeTargets[i] = csr.getTarget(start + i);
+                nodeWeights[i] = csr.getWeight(start + i);
+            }
+            // Each task writes only its own node's slots
+            g.targets[u] = nodeTargets;
+            g.weights[u] = nodeWeights;
+            g.degree[u] = d;
+        });
+
+        g.numEdges = csr.getNumEdges();
+        for (int u = 0; u < g.numNodes; u++) {
+            if (g.degree[u] >= HUB_DEGREE) g.indexHub(u);
+        }
+        return g;
     }
 
     /**
@@ -33,10 +116,54 @@ public class Graph {
      *
      * @return number of nodes
      */
+    @Override
     public int getNumNodes() {
         return numNodes;
     }
 
+    /**
+     * Return the total number of directed edges in the graph.
+     *
+     * @return number of edges
+     */
+    @Override
+    public int getNumEdges() {
+        return numEdges;
+    }
+
+    /**
+     * Return the number of outgoing edges of a node.
+     *
+     * @param node node index
+     * @return out-degree of the node
+     */
+    @Override
+    public int getDegree(int node) {
+        return degree[node];
+    }
+
+    /**
+     * Destination of the i-th outgoing edge of a node (in insertion order).
+     *
+     * @param node node index
+     * @param i edge position, 0 &lt;= i &lt; getDegree(node)
+     * @return destination node index
+     */
+    public int getTarget(int node, int i) {
+        return targets[node][i];
+    }
+
+    /**
+     * Weight of the i-th outgoing edge of a node (in insertion order).
+     *
+     * @param node node index
+     * @param i edge position, 0 &lt;= i &lt; getDegree(node)
+     * @return edge weight
+     */
+    public int getWeight(int node, int i) {
+        return weights[node][i];
+    }
+
     /**
      * Add a directed edge from `from` to `to` with the specified weight.
      *
@@ -45,17 +172,234 @@ public class Graph {
      * @param weight edge weight (cost)
      */
     public void addEdge(int from, int to, int weight) {
-        adj.get(from).add(new Edge(to, weight));
+        int d = degree[from];
+        if (d == targets[from].length) {
+            int capacity = Math.max(INITIAL_CAPACITY, d * 2);
+            targets[from] = Arrays.copyOf(targets[from], capacity);
+            weights[from] = Arrays.copyOf(weights[from], capacity);
+        }
+        targets[from][d] = to;
+        weights[from][d] = weight;
+        degree[from] = d + 1;
+        numEdges++;
+        reverse = null;
+        cheapest = null;
+        if (edgeLookup != null && edgeLookup[from] != null) {
+            edgeLookup[from] = EdgeIndex.addToNode(edgeLookup[from], targets[from], d);
+        }
+
+        if (d + 1 == HUB_DEGREE) {
+            indexHub(from);
+        } else if (d + 1 > HUB_DEGREE) {
+            hubTargets[from].add(to);
+        }
+    }
+
+    // Start a destination bitmap for a node that just reached HUB_DEGREE
+    private void indexHub(int node) {
+        if (hubTargets == null) hubTargets = new IntBitmap[degree.length];
+        IntBitmap set = new IntBitmap();
+        for (int i = 0; i < degree[node]; i++) set.add(targets[node][i]);
+        hubTargets[node] = set;
+    }
+
+    /**
+     * Check whether there is an edge from {@code from} to {@code to}.
+     * Low-degree nodes are scanned directly and hubs answer from their
+     * destination bitmap; other adjacency lists are looked up through a
+     * per-node index (see {@link EdgeIndex}) that is built on first use. Adding
+     * an edge only updates or drops the index of its source node, so lookups
+     * and insertions can be mixed freely.
+     *
+     * @param from source node index
+     * @param to destination node index
+     * @return true if at least one such edge exists
+     */
+    public boolean hasEdge(int from, int to) {
+        if (degree[from] >= HUB_DEGREE) {
+            return hubTargets[from].contains(to);
+        }
+        return indexOf(from, to) != EdgeIndex.NO_EDGE;
+    }
+
+    /**
+     * Get the weight of the edge from {@code from} to {@code to}. With parallel
+     * edges, the weight of the first one added is returned.
+     *
+     * @param from source node index
+     * @param to destination node index
+     * @return edge weight
+     * @throws NoSuchElementException if there is no such edge
+     */
+    public int getEdgeWeight(int from, int to) {
+        int i = indexOf(from, to);
+        if (i == EdgeIndex.NO_EDGE) {
+            throw new NoSuchElementException("No edge " + from + " -> " + to);
+        }
+        return weights[from][i];
+    }
+
+    // Position of the first from -> to edge, or EdgeIndex.NO_EDGE
+    private int indexOf(int from, int to) {
+        if (degree[from] <= EdgeIndex.LINEAR_SCAN_DEGREE) {
+            return scanFor(from, to);
+        }
+        if (degree[from] >= HUB_DEGREE && !hubTargets[from].contains(to)) {
+            return EdgeIndex.NO_EDGE; // cheap rejection before building the index
+        }
+        if (edgeLookup == null) edgeLookup = new int[degree.length][];
+        int[] lookup = edgeLookup[from];
+        if (lookup == null) {
+            lookup = EdgeIndex.buildNode(targets[from], degree[from]);
+            edgeLookup[from] = lookup;
+        }
+        return EdgeIndex.indexOfNode(lookup, degree[from], to);
+    }
+
+    // Linear scan of from's edges
+    private int scanFor(int from, int to) {
+        for (int i = 0; i < degree[from]; i++) {
+            if (targets[from][i] == to) return i;
+        }
+        return EdgeIndex.NO_EDGE;
+    }
+
+    /**
+     * Build a simple graph from this one: self-loops are dropped and every group
+     * of parallel edges u -&gt; v is collapsed into a single edge whose weight is
+     * combined with the given policy. Nodes are processed in parallel, each by
+     * sorting its edges by destination and merging equal runs, so the outgoing
+     * edges of the result are ordered by ascending destination. This graph is
+     * left unchanged.
+     *
+     * @param policy how to combine the weights of parallel edges
+     * @return new simple graph with the same nodes
+     */
+    public Graph simplify(MergePolicy policy) {
+        Graph g = new Graph(numNodes);
+
+        IntStream.range(0, numNodes).parallel().forEach(u -> {
+            int d = degree[u];
+            if (d == 0) return;
+
+            // Destination in the high half so sorting groups parallel edges together
+            long[] packed = new long[d];
+            for (int i = 0; i < d; i++) {
+                packed[i] = ((long) targets[u][i] << 32) | (weights[u][i] & 0xFFFFFFFFL);
+            }
+            Arrays.sort(packed);
+
+            int[] outTargets = new int[d];
+            int[] outWeights = new int[d];
+            int n = 0;
+            for (int i = 0; i < d; i++) {
+                int to = (int) (packed[i] >>> 32);
+                int w = (int) packed[i];
+                if (to == u) continue;
+
+                if (n > 0 && outTargets[n - 1] == to) {
+                    outWeights[n - 1] = policy.merge(outWeights[n - 1], w);
+                } else {
+                    outTargets[n] = to;
+                    outWeights[n] = w;
+                    n++;
+                }
+            }
+
+            // Each task writes only its own node's slots
+            g.targets[u] = n == 0 ? NO_EDGES : Arrays.copyOf(outTargets, n);
+            g.weights[u] = n == 0 ? NO_EDGES : Arrays.copyOf(outWeights, n);
+            g.degree[u] = n;
+        });
+
+        for (int u = 0; u < numNodes; u++) {
+            g.numEdges += g.degree[u];
+            if (g.degree[u] >= HUB_DEGREE) g.indexHub(u);
+        }
+        return g;
     }
 
     /**
      * Get the outgoing edges (neighbors) for a given node.
+     * The list is a fresh copy with one {@link Edge} per outgoing edge; loops
+     * that only read edges should use {@link #newCursor()} or
+     * {@link #getTarget(int, int)} / {@link #getWeight(int, int)} instead.
      *
      * @param node node index
      * @return list of outgoing edges (may be empty)
      */
     public List<Edge> getNeighbors(int node) {
-        return adj.get(node);
+        List<Edge> list = new ArrayList<>(degree[node]);
+        for (int i = 0; i < degree[node]; i++) {
+            list.add(new Edge(targets[node][i], weights[node][i]));
+        }
+        return list;
+    }
+
+    /**
+     * Call the visitor once for every outgoing edge of a node, in insertion order,
+     * without allocating.
+     *
+     * @param node node index
+     * @param visitor callback receiving each edge's destination and weight
+     */
+    @Override
+    public void forEachNeighbor(int node, EdgeVisitor visitor) {
+        int[] nodeTargets = targets[node];
+        int[] nodeWeights = weights[node];
+        for (int i = 0; i < degree[node]; i++) {
+            visitor.visit(nodeTargets[i], nodeWeights[i]);
+        }
+    }
+
+    /**
+     * Create a cursor over the outgoing edges of this graph. The cursor reads the
+     * primitive edge arrays directly and allocates nothing while iterating.
+     * Edges added after {@link EdgeCursor#reset(int)} may not be visible until
+     * the cursor is reset again.
+     *
+     * @return a fresh edge cursor
+     */
+    @Override
+    public EdgeCursor newCursor() {
+        return new Cursor();
+    }
+
+    /**
+     * Return the reverse (incoming-edge) index of this graph: node v's edges in the
+     * result are the edges u -&gt; v of this graph, listed by ascending u. The index
+     * is built on first use and cached until the next {@link #addEdge(int, int, int)}.
+     *
+     * @return transpose of the current graph
+     */
+    public CsrGraph getReverse() {
+        if (reverse == null) {
+            reverse = CsrGraph.transposeOf(this);
+        }
+        return reverse;
+    }
+
+    /**
+     * Pack the current edges into an immutable {@link CsrGraph}. The snapshot keeps
+     * the per-node edge order, so its queries return the same results as this graph.
+     * Later calls to {@link #addEdge(int, int, int)} do not affect the snapshot.
+     *
+     * @return immutable CSR copy of this graph
+     */
+    public CsrGraph freeze() {
+        int[] offsets = new int[numNodes + 1];
+        for (int i = 0; i < numNodes; i++) {
+            offsets[i + 1] = offsets[i] + degree[i];
+        }
+
+        int[] csrTargets = new int[numEdges];
+        int[] csrWeights = new int[numEdges];
+        for (int i = 0; i < numNodes; i++) {
+            System.arraycopy(targets[i], 0, csrTargets, offsets[i], degree[i]);
+            System.arraycopy(weights[i], 0, csrWeights, offsets[i], degree[i]);
+        }
+
+        return new CsrGraph(offsets, csrTargets, csrWeights);
     }
 
     /**
@@ -67,6 +411,20 @@ public class Graph {
      * @return newly created Graph
      */
     public static Graph generateRandomGraph(BlumBlumShub bbs) {
+        return generateRandomGraph(bbs, false);
+    }
+
+    /**
+     * Generate a random directed weighted graph as in {@link #generateRandomGraph(BlumBlumShub)}.
+     * When {@code simple} is true, drawn edges that would be self-loops or would
+     * duplicate an existing edge are skipped, so the result has no parallel
+     * edges and may have fewer edges than were drawn.
+     *
+     * @param bbs BlumBlumShub instance used for pseudorandom numbers
+     * @param simple whether to skip self-loops and parallel edges
+     * @return newly created Graph
+     */
+    public static Graph generateRandomGraph(BlumBlumShub bbs, boolean simple) {
         int numNodes = bbs.nextInt(3, 15);
         Graph g = new Graph(numNodes);
         int numEdges = bbs.nextInt(numNodes, numNodes * 3);
@@ -75,6 +433,7 @@ public class Graph {
             int from = bbs.nextInt(0, numNodes - 1);
             int to   = bbs.nextInt(0, numNodes - 1);
             int w    = bbs.nextInt(1, 20);
+            if (simple && (from == to || g.hasEdge(from, to))) continue;
             g.addEdge(from, to, w);
         }
         return g;
@@ -86,27 +445,22 @@ public class Graph {
      */
     public void printGraph() {
         // Formatted adjacency list with counts
-        int edgeCount = 0;
-        for (List<Edge> list : adj.values()) edgeCount += list.size();
-
-        System.out.println("Directed Weighted Graph: nodes=" + numNodes + ", edges=" + edgeCount);
+        System.out.println("Directed Weighted Graph: nodes=" + numNodes + ", edges=" + numEdges);
         System.out.println("----------------------------------------");
 
         for (int i = 0; i < numNodes; i++) {
-            List<Edge> neighbors = adj.get(i);
             // Align node numbers in a 3-char field
             System.out.print(String.format("%3d:", i));
 
-            if (neighbors == null || neighbors.isEmpty()) {
+            if (degree[i] == 0) {
                 System.out.println("  (no outgoing edges)");
                 continue;
             }
 
             System.out.print(" ");
-            for (int j = 0; j < neighbors.size(); j++) {
-                Edge e = neighbors.get(j);
-                System.out.print(String.format("-> %d(w=%d)", e.getTo(), e.getWeight()));
-                if (j < neighbors.size() - 1) System.out.print(", ");
+            for (int j = 0; j < degree[i]; j++) {
+                System.out.print(String.format("-> %d(w=%d)", targets[i][j], weights[i][j]));
+                if (j < degree[i] - 1) System.out.print(", ");
             }
             System.out.println();
         }
@@ -125,40 +479,75 @@ public class Graph {
      * @return list of node indices forming the path, or null if none exists
      */
     public List<Integer> findAnyPath(int start, int end) {
-        boolean[] visited = new boolean[numNodes];
-        List<Integer> path = new ArrayList<>();
-
-        if (dfsFind(start, end, visited, path)) {
-            return path;
-        }
+        return GraphSearch.findAnyPath(this, start, end);
+    }
 
-        return null; // no path found
+    /**
+     * Find any path from start to end, as {@link #findAnyPath(int, int)}, but
+     * return it as a primitive array. The search is iterative, so it works on
+     * arbitrarily long paths.
+     *
+     * @param start start node index
+     * @param end destination node index
+     * @return node indices forming the path, or null if none exists
+     */
+    public int[] findAnyPathArray(int start, int end) {
+        return GraphSearch.findAnyPathArray(this, start, end);
     }
 
-    // DFS helper for path search
-    private boolean dfsFind(int current, int end, boolean[] visited, List<Integer> path) {
-        visited[current] = true;
-        path.add(current);
 
-        // If we've reached the destination, return true
-        if (current == end) return true;
+    /**
+     * Find a minimum-cost path from start to end using Dijkstra's algorithm
+     * (with a bucket queue when all weights are small, see
+     * {@link ShortestPathSearch#create(GraphView)}). Unlike
+     * {@link #findAnyPath(int, int)}, the result is optimal. The search state is
+     * cached and reused until the graph changes; its cost is available from
+     * {@link #getCheapestCost(int, int)}.
+     *
+     * @param start start node index
+     * @param end destination node index
+     * @return list of node indices forming a cheapest path, or null if none exists
+     * @throws IllegalArgumentException if the graph has a negative edge weight
+     */
+    public List<Integer> findCheapestPath(int start, int end) {
+        int[] path = searchCheapest(start, end);
+        if (path == null) return null;
 
-        // Explore neighbors in order
-        for (Edge e : adj.get(current)) {
-            int next = e.getTo();
-            if (!visited[next]) {
-                if (dfsFind(next, end, visited, path)) return true;
-            }
-        }
+        List<Integer> list = new ArrayList<>(path.length);
+        for (int v : path) list.add(v);
+        return list;
+    }
 
-        // Backtrack
-        path.remove(path.size() - 1);
-        return false;
+    /**
+     * Get the cost of the path {@link #findCheapestPath(int, int)} returns. Where
+     * nodes are joined by parallel edges the cheapest one counts, unlike in
+     * {@link #calculateCost(List)}. Right after findCheapestPath for the same
+     * nodes this reads the cached search instead of searching again.
+     *
+     * @param start start node index
+     * @param end destination node index
+     * @return cost of a cheapest path, or {@link ShortestPathSearch#UNREACHABLE} if none exists
+     * @throws IllegalArgumentException if the graph has a negative edge weight
+     */
+    public long getCheapestCost(int start, int end) {
+        if (cheapest == null || start != cheapestStart || end != cheapestEnd) {
+            searchCheapest(start, end);
+        }
+        return cheapest.getDistance(end);
     }
 
+    private int[] searchCheapest(int start, int end) {
+        if (cheapest == null) {
+            cheapest = ShortestPathSearch.create(this);
+        }
+        cheapestStart = start;
+        cheapestEnd = end;
+        return cheapest.findCheapestPath(start, end);
+    }
 
     /**
-     * Calculate the total cost (sum of weights) for the given path.
+     * Calculate the total cost (sum of weights) for the given path. For every hop
+     * the first matching edge is used, even if a parallel edge is cheaper.
      *
      * @param path list of node indices in traversal order
      * @return total edge weight sum for the path
@@ -168,13 +557,9 @@ public class Graph {
 
         for (int i = 0; i < path.size() - 1; i++) {
             int from = path.get(i);
-            int to = path.get(i + 1);
-
-            for (Edge e : adj.get(from)) {
-                if (e.getTo() == to) {
-                    cost += e.getWeight();
-                    break;
-                }
+            int j = indexOf(from, path.get(i + 1));
+            if (j != EdgeIndex.NO_EDGE) {
+                cost += weights[from][j];
             }
         }
 
@@ -189,44 +574,47 @@ public class Graph {
      * @return list of node indices forming a cycle, or null if the graph is acyclic
      */
     public List<Integer> findCycle() {
-        boolean[] visited = new boolean[numNodes];
-        boolean[] inStack = new boolean[numNodes];
-        List<Integer> cycle = new ArrayList<>();
-
-        for (int i = 0; i < numNodes; i++) {
-            if (!visited[i]) {
-                if (dfsCycle(i, visited, inStack, cycle)) {
-                    return cycle;  // return the first found cycle
-                }
-            }
-        }
+        return GraphSearch.findCycle(this);
+    }
 
-        return null; // no cycle
+    /**
+     * Detect any directed cycle, as {@link #findCycle()}, but return it as a
+     * primitive array. The search is iterative, so it works on arbitrarily deep graphs.
+     *
+     * @return node indices forming a cycle, or null if the graph is acyclic
+     */
+    public int[] findCycleArray() {
+        return GraphSearch.findCycleArray(this);
     }
 
-    // DFS helper for cycle detection
-    private boolean dfsCycle(int current, boolean[] visited, boolean[] inStack, List<Integer> cycle) {
-        visited[current] = true;
-        inStack[current] = true;
-        cycle.add(current);
+    // Cursor over one node's slice of the primitive edge arrays
+    private final class Cursor implements EdgeCursor {
+        private int[] nodeTargets;
+        private int[] nodeWeights;
+        private int pos;
+        private int end;
+
+        @Override
+        public void reset(int node) {
+            nodeTargets = targets[node];
+            nodeWeights = weights[node];
+            pos = -1;
+            end = degree[node];
+        }
 
-        for (Edge e : adj.get(current)) {
-            int next = e.getTo();
+        @Override
+        public boolean next() {
+            return ++pos < end;
+        }
 
-            if (!visited[next]) {
-                if (dfsCycle(next, visited, inStack, cycle)) return true;
-            } else if (inStack[next]) {
-                // Cycle found — trim the cycle to start at 'next'
-                int index = cycle.indexOf(next);
-                List<Integer> sub = new ArrayList<>(cycle.subList(index, cycle.size()));
-                cycle.clear();
-                cycle.addAll(sub);
-                return true;
-            }
+        @Override
+        public int getTo() {
+            return nodeTargets[pos];
         }
 
-        inStack[current] = false;
-        cycle.remove(cycle.size() - 1);
-        return false;
+        @Override
+        public int getWeight() {
+            return nodeWeights[pos];
+        }
     }
 }
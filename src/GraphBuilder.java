@@ -0,0 +1,220 @@
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Bulk constructor for large graphs.
+ *
+ * Edges are buffered in three flat int arrays (one call per edge or whole
+ * arrays at once). {@link #buildCsr()} then makes two passes: the first counts
+ * every node's out-degree so the CSR arrays can be allocated at their exact
+ * size, the second scatters the edges into place, in parallel on multi-core
+ * machines. Within each node
+ * the edges keep the order in which they were added, so the result is the same
+ * as adding them one by one with {@link Graph#addEdge(int, int, int)}.
+ */
+public final class GraphBuilder {
+
+    // Below this many edges a sequential scatter beats the parallel bookkeeping
+    private static final int PARALLEL_THRESHOLD = 1 << 16;
+
+    private final int numNodes;
+    private int[] from;
+    private int[] to;
+    private int[] weight;
+    private int size;
+
+    /**
+     * Create a builder for a graph with the specified number of nodes.
+     *
+     * @param numNodes number of nodes (indexed 0..numNodes-1)
+     */
+    public GraphBuilder(int numNodes) {
+        this(numNodes, 16);
+    }
+
+    /**
+     * Create a builder for a graph with the specified number of nodes, sized
+     * for the expected number of edges.
+     *
+     * @param numNodes number of nodes (indexed 0..numNodes-1)
+     * @param expectedEdges expected number of edges
+     */
+    public GraphBuilder(int numNodes, int expectedEdges) {
+        this.numNodes = numNodes;
+        int capacity = Math.max(16, expectedEdges);
+        from = new int[capacity];
+        to = new int[capacity];
+        weight = new int[capacity];
+    }
+
+    /**
+     * Add one directed edge.
+     *
+     * @param from source node index
+     * @param to destination node index
+     * @param weight edge weight (cost)
+     * @return this builder
+     */
+    public GraphBuilder addEdge(int from, int to, int weight) {
+        ensureCapacity(size + 1);
+        this.from[size] = from;
+        this.to[size] = to;
+        this.weight[size] = weight;
+        size++;
+        return this;
+    }
+
+    /**
+     * Add many directed edges at once; edge i is from[i] -&gt; to[i] with weight[i].
+     *
+     * @param from source node indices
+     * @param to destination node indices
+     * @param weight edge weights
+     * @return this builder
+     * @throws IllegalArgumentException if the arrays differ in length
+     */
+    public GraphBuilder addEdges(int[] from, int[] to, int[] weight) {
+        if (from.length != to.length || from.length != weight.length) {
+            throw new IllegalArgumentException("Edge arrays differ in length");
+        }
+        ensureCapacity(size + from.length);
+        System.arraycopy(from, 0, this.from, size, from.length);
+        System.arraycopy(to, 0, this.to, size, to.length);
+        System.arraycopy(weight, 0, this.weight, size, weight.length);
+        size += from.length;
+        return this;
+    }
+
+    /**
+     * Return the number of edges added so far.
+     *
+     * @return number of buffered edges
+     */
+    public int getNumEdges() {
+        return size;
+    }
+
+    /**
+     * Build an immutable CSR graph from the buffered edges.
+     *
+     * @return CSR graph
+     * @throws IllegalArgumentException if an edge refers to a node outside 0..numNodes-1
+     */
+    public CsrGraph buildCsr() {
+        // Pass 1: exact out-degrees
+        int[] offsets = new int[numNodes + 1];
+        for (int i = 0; i < size; i++) {
+            int u = from[i];
+            int v = to[i];
+            if (u < 0 || u >= numNodes || v < 0 || v >= numNodes) {
+                throw new IllegalArgumentException("Edge " + i + " (" + u + " -> " + v + ") is out of range");
+            }
+            offsets[u + 1]++;
+        }
+        for (int u = 0; u < numNodes; u++) offsets[u + 1] += offsets[u];
+
+        // Pass 2: place every edge at its source's next free slot
+        int[] targets = new int[size];
+        int[] weights = new int[size];
+        int parts = Math.min(numNodes, ForkJoinPool.getCommonPoolParallelism() * 4);
+        if (parts <= 1 || size < PARALLEL_THRESHOLD) {
+            scatter(offsets, 0, numNodes, null, 0, size, targets, weights);
+        } else {
+            parallelScatter(offsets, parts, targets, weights);
+        }
+
+        return new CsrGraph(offsets, targets, weights);
+    }
+
+    // Stable counting scatter of the edges with sources in [firstNode, endNode);
+    // the edges are ids[lo..hi) if ids is given, otherwise lo..hi themselves
+    private void scatter(int[] offsets, int firstNode, int endNode, int[] ids, int lo, int hi,
+                         int[] targets, int[] weights) {
+        int[] next = Arrays.copyOfRange(offsets, firstNode, endNode);
+        for (int k = lo; k < hi; k++) {
+            int i = ids == null ? k : ids[k];
+            int pos = next[from[i] - firstNode]++;
+            targets[pos] = to[i];
+            weights[pos] = weight[i];
+        }
+    }
+
+    /*
+     * Split the nodes into `parts` ranges holding about the same number of edges.
+     * Step 1 buckets edge ids by range: each chunk of the input counts its edges
+     * per range, the counts give every (range, chunk) pair its own output span,
+     * and the chunks then copy their ids in parallel. Step 2 scatters each range
+     * independently. Both steps preserve input order, so no atomics or sorting
+     * are needed, and the only extra memory is one int per edge.
+     */
+    private void parallelScatter(int[] offsets, int parts, int[] targets, int[] weights) {
+        int[] rangeStart = new int[parts + 1];
+        for (int r = 1; r < parts; r++) {
+            long goal = (long) size * r / parts;
+            int u = Arrays.binarySearch(offsets, 0, numNodes + 1, (int) goal);
+            if (u < 0) u = -u - 2; // last node starting before the goal
+            rangeStart[r] = Math.max(rangeStart[r - 1], Math.min(u, numNodes));
+        }
+        rangeStart[parts] = numNodes;
+
+        int[] rangeOf = new int[numNodes];
+        for (int r = 0; r < parts; r++) {
+            Arrays.fill(rangeOf, rangeStart[r], rangeStart[r + 1], r);
+        }
+
+        int chunks = parts;
+        int[][] counts = new int[chunks][parts];
+        IntStream.range(0, chunks).parallel().forEach(c -> {
+            int[] count = counts[c];
+            for (int i = chunkStart(c, chunks), end = chunkStart(c + 1, chunks); i < end; i++) {
+                count[rangeOf[from[i]]]++;
+            }
+        });
+
+        // Turn counts into output positions: range r starts at its first node's offset
+        for (int r = 0; r < parts; r++) {
+            int pos = offsets[rangeStart[r]];
+            for (int c = 0; c < chunks; c++) {
+                int n = counts[c][r];
+                counts[c][r] = pos;
+                pos += n;
+            }
+        }
+
+        int[] ids = new int[size];
+        IntStream.range(0, chunks).parallel().forEach(c -> {
+            int[] next = counts[c];
+            for (int i = chunkStart(c, chunks), end = chunkStart(c + 1, chunks); i < end; i++) {
+                ids[next[rangeOf[from[i]]]++] = i;
+            }
+        });
+
+        IntStream.range(0, parts).parallel().forEach(r -> scatter(offsets, rangeStart[r], rangeStart[r + 1],
+                ids, offsets[rangeStart[r]], offsets[rangeStart[r + 1]], targets, weights));
+    }
+
+    private int chunkStart(int chunk, int chunks) {
+        return (int) ((long) size * chunk / chunks);
+    }
+
+    /**
+     * Build a mutable {@link Graph} from the buffered edges. Every node's edge
+     * arrays are allocated at exactly its degree.
+     *
+     * @return mutable graph
+     * @throws IllegalArgumentException if an edge refers to a node outside 0..numNodes-1
+     */
+    public Graph build() {
+        return Graph.fromCsr(buildCsr());
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > from.length) {
+            int newCapacity = (int) Math.min(Integer.MAX_VALUE - 8, Math.max(capacity, from.length * 2L));
+            from = Arrays.copyOf(from, newCapacity);
+            to = Arrays.copyOf(to, newCapacity);
+            weight = Arrays.copyOf(weight, newCapacity);
+        }
+    }
+}
@@ -0,0 +1,346 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Traversal algorithms shared by every {@link GraphView} implementation:
+ * DFS pathfinding, path cost evaluation and directed cycle detection.
+ *
+ * The results match the behavior documented on {@link Graph}: the path is the
+ * first one discovered by DFS and the cycle is the first one discovered when
+ * starting DFS from nodes 0, 1, 2, ... in order.
+ */
+public final class GraphSearch {
+
+    // DFS colors for cycle detection
+    private static final byte WHITE = 0;
+    private static final byte GRAY = 1;
+    private static final byte BLACK = 2;
+
+    private GraphSearch() {
+    }
+
+    /**
+     * Find any path from start to end using depth-first search (DFS).
+     *
+     * @param graph graph to search
+     * @param start start node index
+     * @param end destination node index
+     * @return list of node indices forming the path, or null if none exists
+     * @see #findAnyPathArray(GraphView, int, int)
+     */
+    public static List<Integer> findAnyPath(GraphView graph, int start, int end) {
+        return toList(findAnyPathArray(graph, start, end));
+    }
+
+    /**
+     * Find any path from start to end using an iterative depth-first search.
+     * The DFS stack is an int array of nodes plus, per level, the position in
+     * that node's edge list: an int for {@link Graph}, {@link CsrGraph} and
+     * {@link OffHeapGraph}, whose edges can be read by index, and an edge cursor
+     * for {@link CompressedGraph} and {@link DenseGraph}, which have to scan. The
+     * search depth is limited only by the number of nodes (no recursion), and
+     * nothing is boxed. Neighbors are explored in cursor order and the first
+     * path reached is returned, exactly as a recursive DFS would.
+     *
+     * @param graph graph to search
+     * @param start start node index
+     * @param end destination node index
+     * @return node indices forming the path (start first), or null if none exists
+     */
+    public static int[] findAnyPathArray(GraphView graph, int start, int end) {
+        if (start == end) return new int[] {start};
+
+        boolean[] visited = new boolean[graph.getNumNodes()];
+        int[] stack = new int[16];
+        EdgeStack edges = EdgeStack.of(graph);
+
+        visited[start] = true;
+        stack[0] = start;
+        edges.push(0, start);
+        int depth = 0;
+
+        while (depth >= 0) {
+            int next = edges.next(depth);
+            if (next < 0) {
+                depth--; // backtrack
+                continue;
+            }
+
+            if (visited[next]) continue;
+            visited[next] = true;
+
+            if (++depth == stack.length) stack = Arrays.copyOf(stack, depth * 2);
+            stack[depth] = next;
+            if (next == end) return Arrays.copyOf(stack, depth + 1);
+
+            edges.push(depth, next);
+        }
+
+        return null; // no path found
+    }
+
+    /**
+     * Calculate the total cost (sum of weights) for the given path. For every hop
+     * the first matching edge is used; hops without an edge contribute nothing.
+     *
+     * @param graph graph the path belongs to
+     * @param path list of node indices in traversal order
+     * @return total edge weight sum for the path
+     */
+    public static int calculateCost(GraphView graph, List<Integer> path) {
+        EdgeCursor c = graph.newCursor();
+        int cost = 0;
+
+        for (int i = 0; i < path.size() - 1; i++) {
+            int to = path.get(i + 1);
+
+            c.reset(path.get(i));
+            while (c.next()) {
+                if (c.getTo() == to) {
+                    cost += c.getWeight();
+                    break;
+                }
+            }
+        }
+
+        return cost;
+    }
+
+    /**
+     * Detect any directed cycle in the graph.
+     *
+     * @param graph graph to search
+     * @return list of node indices forming a cycle, or null if the graph is acyclic
+     * @see #findCycleArray(GraphView)
+     */
+    public static List<Integer> findCycle(GraphView graph) {
+        return toList(findCycleArray(graph));
+    }
+
+    /**
+     * Detect any directed cycle using an iterative three-color DFS. Nodes are
+     * white (unvisited), gray (on the DFS stack) or black (finished), and every
+     * discovered node records its DFS parent. An edge into a gray node closes a
+     * cycle, which is read back by walking parent pointers from the current node
+     * to that gray node. The whole search is O(V + E) and never recurses; the
+     * per-level edge positions are kept as in {@link #findAnyPathArray}.
+     * DFS starts from nodes 0, 1, 2, ... in order and the first cycle found is
+     * returned, beginning at the node the back edge points to.
+     *
+     * @param graph graph to search
+     * @return node indices forming a cycle, or null if the graph is acyclic
+     */
+    public static int[] findCycleArray(GraphView graph) {
+        int numNodes = graph.getNumNodes();
+        byte[] color = new byte[numNodes];
+        int[] parent = new int[numNodes];
+        int[] stack = new int[16];
+        EdgeStack edges = EdgeStack.of(graph);
+
+        for (int root = 0; root < numNodes; root++) {
+            if (color[root] != WHITE) continue;
+
+            color[root] = GRAY;
+            parent[root] = -1;
+            stack[0] = root;
+            edges.push(0, root);
+            int depth = 0;
+
+            while (depth >= 0) {
+                int current = stack[depth];
+                int next = edges.next(depth);
+                if (next < 0) {
+                    color[current] = BLACK;
+                    depth--;
+                    continue;
+                }
+
+                if (color[next] == GRAY) {
+                    return walkParents(parent, current, next);
+                }
+                if (color[next] == WHITE) {
+                    color[next] = GRAY;
+                    parent[next] = current;
+                    if (++depth == stack.length) stack = Arrays.copyOf(stack, depth * 2);
+                    stack[depth] = next;
+                    edges.push(depth, next);
+                }
+            }
+        }
+
+        return null; // no cycle
+    }
+
+    // Cycle next -> ... -> current, read backwards along the parent pointers
+    private static int[] walkParents(int[] parent, int current, int next) {
+        int length = 1;
+        for (int v = current; v != next; v = parent[v]) length++;
+
+        int[] cycle = new int[length];
+        for (int v = current, i = length - 1; i >= 0; v = parent[v], i--) {
+            cycle[i] = v;
+        }
+        return cycle;
+    }
+
+    private static List<Integer> toList(int[] nodes) {
+        if (nodes == null) return null;
+        List<Integer> list = new ArrayList<>(nodes.length);
+        for (int v : nodes) list.add(v);
+        return list;
+    }
+
+    // Where the DFS is in the edge list of the node at each depth. Views with
+    // random access to their edges need one int per depth; the compressed and
+    // dense views fall back to one cursor per depth
+    private abstract static class EdgeStack {
+        static EdgeStack of(GraphView graph) {
+            if (graph instanceof CsrGraph) return new CsrStack((CsrGraph) graph);
+            if (graph instanceof OffHeapGraph) return new OffHeapStack((OffHeapGraph) graph);
+            if (graph instanceof Graph) return new GraphStack((Graph) graph);
+            return new CursorStack(graph);
+        }
+
+        // Start iterating the edges of node at the given depth
+        abstract void push(int depth, int node);
+
+        // Destination of the next edge at the given depth, or -1 when there are no more
+        abstract int next(int depth);
+    }
+
+    // Positions are global edge indices into a CSR layout
+    private abstract static class EdgeIndexStack extends EdgeStack {
+        private int[] pos = new int[16];
+        private int[] end = new int[16];
+
+        abstract int edgeStart(int node);
+
+        abstract int edgeEnd(int node);
+
+        abstract int target(int edge);
+
+        @Override
+        final void push(int depth, int node) {
+            if (depth >= pos.length) {
+                pos = Arrays.copyOf(pos, Math.max(depth + 1, pos.length * 2));
+                end = Arrays.copyOf(end, pos.length);
+            }
+            pos[depth] = edgeStart(node);
+            end[depth] = edgeEnd(node);
+        }
+
+        @Override
+        final int next(int depth) {
+            int e = pos[depth];
+            if (e == end[depth]) return -1;
+            pos[depth] = e + 1;
+            return target(e);
+        }
+    }
+
+    private static final class CsrStack extends EdgeIndexStack {
+        private final CsrGraph graph;
+
+        CsrStack(CsrGraph graph) {
+            this.graph = graph;
+        }
+
+        @Override
+        int edgeStart(int node) {
+            return graph.getEdgeStart(node);
+        }
+
+        @Override
+        int edgeEnd(int node) {
+            return graph.getEdgeEnd(node);
+        }
+
+        @Override
+        int target(int edge) {
+            return graph.getTarget(edge);
+        }
+    }
+
+    private static final class OffHeapStack extends EdgeIndexStack {
+        private final OffHeapGraph graph;
+
+        OffHeapStack(OffHeapGraph graph) {
+            this.graph = graph;
+        }
+
+        @Override
+        int edgeStart(int node) {
+            return graph.getEdgeStart(node);
+        }
+
+        @Override
+        int edgeEnd(int node) {
+            return graph.getEdgeEnd(node);
+        }
+
+        @Override
+        int target(int edge) {
+            return graph.getTarget(edge);
+        }
+    }
+
+    // Positions index the node's own edge arrays
+    private static final class GraphStack extends EdgeStack {
+        private final Graph graph;
+        private int[] nodes = new int[16];
+        private int[] pos = new int[16];
+
+        GraphStack(Graph graph) {
+            this.graph = graph;
+        }
+
+        @Override
+        void push(int depth, int node) {
+            if (depth >= pos.length) {
+                pos = Arrays.copyOf(pos, Math.max(depth + 1, pos.length * 2));
+                nodes = Arrays.copyOf(nodes, pos.length);
+            }
+            nodes[depth] = node;
+            pos[depth] = 0;
+        }
+
+        @Override
+        int next(int depth) {
+            int node = nodes[depth];
+            int i = pos[depth];
+            if (i == graph.getDegree(node)) return -1;
+            pos[depth] = i + 1;
+            return graph.getTarget(node, i);
+        }
+    }
+
+    // One cursor per depth, created on first use and reused afterwards
+    private static final class CursorStack extends EdgeStack {
+        private final GraphView graph;
+        private EdgeCursor[] cursors = new EdgeCursor[16];
+
+        CursorStack(GraphView graph) {
+            this.graph = graph;
+        }
+
+        @Override
+        void push(int depth, int node) {
+            if (depth >= cursors.length) {
+                cursors = Arrays.copyOf(cursors, Math.max(depth + 1, cursors.length * 2));
+            }
+            EdgeCursor c = cursors[depth];
+            if (c == null) {
+                c = graph.newCursor();
+                cursors[depth] = c;
+            }
+            c.reset(node);
+        }
+
+        @Override
+        int next(int depth) {
+            EdgeCursor c = cursors[depth];
+            return c.next() ? c.getTo() : -1;
+        }
+    }
+}
@@ -0,0 +1,54 @@
+/**
+ * Read-only view of a directed, weighted graph.
+ *
+ * Nodes are indexed 0..getNumNodes()-1. Outgoing edges are visited through an
+ * {@link EdgeCursor}, so the algorithms in {@link GraphSearch} can run against
+ * any storage layout without creating an {@link Edge} object per neighbor.
+ */
+public interface GraphView {
+
+    /**
+     * Return the number of nodes in the graph.
+     *
+     * @return number of nodes
+     */
+    int getNumNodes();
+
+    /**
+     * Return the total number of directed edges in the graph.
+     *
+     * @return number of edges
+     */
+    int getNumEdges();
+
+    /**
+     * Return the number of outgoing edges of a node.
+     *
+     * @param node node index
+     * @return out-degree of the node
+     */
+    int getDegree(int node);
+
+    /**
+     * Create a new cursor over this graph. A cursor is not thread-safe but can be
+     * reset and reused for any number of nodes.
+     *
+     * @return a fresh edge cursor
+     */
+    EdgeCursor newCursor();
+
+    /**
+     * Call the visitor once for every outgoing edge of a node, in the same order
+     * an {@link EdgeCursor} would report them.
+     *
+     * @param node node index
+     * @param visitor callback receiving each edge's destination and weight
+     */
+    default void forEachNeighbor(int node, EdgeVisitor visitor) {
+        EdgeCursor c = newCursor();
+        c.reset(node);
+        while (c.next()) {
+            visitor.visit(c.getTo(), c.getWeight());
+        }
+    }
+}
@@ -0,0 +1,451 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Exact distance oracle built by pruned landmark labeling.
+ *
+ * Every node v gets an out-label (hubs h with d(v, h)) and an in-label (hubs h
+ * with d(h, v)) such that for any pair s, t some hub on a cheapest s-t path
+ * is in both the out-label of s and the in-label of t. A distance query is then
+ * a single merge of two sorted arrays, with no graph search at all.
+ * <p>
+ * Labels are built by running a Dijkstra search forward and one backward from
+ * every node in turn, most important first. A search is pruned at any node
+ * whose distance the labels built so far already give exactly, so the early,
+ * central hubs cover most pairs and later searches stay tiny. Hubs are stored
+ * by their position in that order, so each label is sorted as it is built.
+ * Importance is estimated by how many descendants a node has in a sample of
+ * shortest-path trees. Label distances are stored as ints.
+ * <p>
+ * The labeling is immutable and its queries keep no state, so it can be shared
+ * between threads. It can be saved next to the graph's file (see
+ * {@link #fileFor(String)}) and loaded again instead of being rebuilt.
+ */
+public final class HubLabeling {
+
+    private static final int MAGIC = 0x4C485247; // "GRHL" when read as little-endian bytes
+    private static final int VERSION = 1;
+    private static final int HEADER_INTS = 5;
+
+    // Shortest-path trees sampled in each direction to rank nodes by importance
+    private static final int SAMPLE_TREES = 16;
+
+    private final int numNodes;
+    private final int[] outOffsets; // out-label of v: outHubs/outDists[outOffsets[v] .. outOffsets[v+1])
+    private final int[] outHubs;
+    private final int[] outDists;
+    private final int[] inOffsets;
+    private final int[] inHubs;
+    private final int[] inDists;
+
+    private HubLabeling(int[] outOffsets, int[] outHubs, int[] outDists,
+                        int[] inOffsets, int[] inHubs, int[] inDists) {
+        this.numNodes = outOffsets.length - 1;
+        this.outOffsets = outOffsets;
+        this.outHubs = outHubs;
+        this.outDists = outDists;
+        this.inOffsets = inOffsets;
+        this.inHubs = inHubs;
+        this.inDists = inDists;
+    }
+
+    /**
+     * Label a graph, building its transpose index.
+     *
+     * @param graph graph to label
+     * @return labeling of the graph
+     * @throws IllegalArgumentException if the graph has a negative edge weight or
+     *         a label distance does not fit in an int
+     */
+    public static HubLabeling build(GraphView graph) {
+        return build(graph, CsrGraph.transposeOf(graph));
+    }
+
+    /**
+     * Label a graph with an existing transpose index, such as {@link Graph#getReverse()}.
+     *
+     * @param graph graph to label
+     * @param reverse transpose of graph
+     * @return labeling of the graph
+     * @throws IllegalArgumentException if the graph has a negative edge weight, a
+     *         label distance does not fit in an int or the two views differ in size
+     */
+    public static HubLabeling build(GraphView graph, GraphView reverse) {
+        if (graph.getNumNodes() != reverse.getNumNodes() || graph.getNumEdges() != reverse.getNumEdges()) {
+            throw new IllegalArgumentException("Reverse index does not match the graph");
+        }
+        return new Builder(graph, reverse).build();
+    }
+
+    /**
+     * Get the number of nodes covered by the labeling.
+     *
+     * @return node count
+     */
+    public int getNumNodes() {
+        return numNodes;
+    }
+
+    /**
+     * Compute the cost of a cheapest path between two nodes.
+     *
+     * @param start start node index
+     * @param end destination node index
+     * @return path cost, or {@link ShortestPathSearch#UNREACHABLE} if end is unreachable
+     */
+    public long distance(int start, int end) {
+        long best = ShortestPathSearch.UNREACHABLE;
+        int i = outOffsets[start];
+        int iEnd = outOffsets[start + 1];
+        int j = inOffsets[end];
+        int jEnd = inOffsets[end + 1];
+        while (i < iEnd && j < jEnd) {
+            int a = outHubs[i];
+            int b = inHubs[j];
+            if (a < b) {
+                i++;
+            } else if (a > b) {
+                j++;
+            } else {
+                best = Math.min(best, (long) outDists[i++] + inDists[j++]);
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Get the total number of label entries over all nodes and both directions.
+     *
+     * @return label entry count
+     */
+    public long getNumEntries() {
+        return (long) outHubs.length + inHubs.length;
+    }
+
+    /**
+     * Get the approximate memory used by the labels.
+     *
+     * @return size in bytes of the label arrays
+     */
+    public long getSizeInBytes() {
+        return 4L * (outOffsets.length + inOffsets.length) + 8L * getNumEntries();
+    }
+
+    /**
+     * Get the file a labeling is stored in next to a graph file.
+     *
+     * @param graphFile graph filename
+     * @return labeling filename
+     */
+    public static String fileFor(String graphFile) {
+        return graphFile + ".hl";
+    }
+
+    /**
+     * Write this labeling to a binary file that can later be read with {@link #load(String)}.
+     *
+     * @param filename target filename
+     * @throws IOException if the file cannot be written
+     */
+    public void save(String filename) throws IOException {
+        try (FileChannel ch = FileChannel.open(Paths.get(filename), StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer buf = ByteBuffer.allocate(1 << 16).order(ByteOrder.LITTLE_ENDIAN);
+            buf.putInt(MAGIC).putInt(VERSION).putInt(numNodes).putInt(outHubs.length).putInt(inHubs.length);
+            for (int[] array : new int[][] {outOffsets, outHubs, outDists, inOffsets, inHubs, inDists}) {
+                for (int value : array) {
+                    if (!buf.hasRemaining()) flush(ch, buf);
+                    buf.putInt(value);
+                }
+            }
+            flush(ch, buf);
+        }
+    }
+
+    private static void flush(FileChannel ch, ByteBuffer buf) throws IOException {
+        buf.flip();
+        while (buf.hasRemaining()) ch.write(buf);
+        buf.clear();
+    }
+
+    /**
+     * Read a labeling written by {@link #save(String)}.
+     *
+     * @param filename file to read
+     * @return the stored labeling
+     * @throws IOException if the file cannot be read or is not a labeling file
+     */
+    public static HubLabeling load(String filename) throws IOException {
+        try (FileChannel ch = FileChannel.open(Paths.get(filename), StandardOpenOption.READ)) {
+            ByteBuffer buf = ByteBuffer.allocate(1 << 16).order(ByteOrder.LITTLE_ENDIAN);
+            buf.limit(HEADER_INTS * Integer.BYTES);
+            fill(ch, buf, filename);
+            if (buf.getInt() != MAGIC || buf.getInt() != VERSION) {
+                throw new IOException("Not a hub labeling file: " + filename);
+            }
+            int numNodes = buf.getInt();
+            int numOut = buf.getInt();
+            int numIn = buf.getInt();
+            if (numNodes < 0 || numOut < 0 || numIn < 0) {
+                throw new IOException("Corrupt hub labeling file: " + filename);
+            }
+
+            int[] outOffsets = readInts(ch, buf, numNodes + 1, filename);
+            int[] outHubs = readInts(ch, buf, numOut, filename);
+            int[] outDists = readInts(ch, buf, numOut, filename);
+            int[] inOffsets = readInts(ch, buf, numNodes + 1, filename);
+            int[] inHubs = readInts(ch, buf, numIn, filename);
+            int[] inDists = readInts(ch, buf, numIn, filename);
+            return new HubLabeling(outOffsets, outHubs, outDists, inOffsets, inHubs, inDists);
+        }
+    }
+
+    // Read until buf is full up to its limit, then flip it for reading
+    private static void fill(FileChannel ch, ByteBuffer buf, String filename) throws IOException {
+        while (buf.hasRemaining()) {
+            if (ch.read(buf) < 0) throw new IOException("Truncated hub labeling file: " + filename);
+        }
+        buf.flip();
+    }
+
+    private static int[] readInts(FileChannel ch, ByteBuffer buf, int length, String filename) throws IOException {
+        int[] result = new int[length];
+        int i = 0;
+        while (i < length) {
+            int n = Math.min(length - i, buf.capacity() / Integer.BYTES);
+            buf.clear().limit(n * Integer.BYTES);
+            fill(ch, buf, filename);
+            buf.asIntBuffer().get(result, i, n);
+            i += n;
+        }
+        return result;
+    }
+
+    // Growing per-node labels plus the pruned search scratch
+    private static final class Builder {
+        private final GraphView graph;
+        private final GraphView reverse;
+        private final int numNodes;
+        private final int[] order; // nodes by hub rank
+        private final int[] rank;
+
+        private final int[][] outHubs;
+        private final int[][] outDists;
+        private final int[] outSize;
+        private final int[][] inHubs;
+        private final int[][] inDists;
+        private final int[] inSize;
+
+        private final long[] hubDist; // current hub's label, indexed by hub rank
+        private final IntDaryHeap heap;
+        private final long[] dist;
+        private final int[] stamp;
+        private int epoch;
+
+        Builder(GraphView graph, GraphView reverse) {
+            this.graph = graph;
+            this.reverse = reverse;
+            this.numNodes = graph.getNumNodes();
+
+            EdgeCursor c = graph.newCursor();
+            for (int v = 0; v < numNodes; v++) {
+                c.reset(v);
+                while (c.next()) {
+                    if (c.getWeight() < 0) {
+                        throw new IllegalArgumentException("Negative edge weight " + c.getWeight()
+                                + " on " + v + " -> " + c.getTo());
+                    }
+                }
+            }
+            heap = new IntDaryHeap(numNodes);
+            dist = new long[numNodes];
+            stamp = new int[numNodes];
+
+            // Nodes on many cheapest paths make the best hubs. Estimate that by how
+            // many descendants a node has in a sample of shortest-path trees; the
+            // degree breaks ties and ranks nodes no tree reaches.
+            long[] score = new long[numNodes];
+            for (int v = 0; v < numNodes; v++) score[v] = (long) graph.getDegree(v) + reverse.getDegree(v);
+            Random random = new Random(numNodes);
+            int[] parent = new int[numNodes];
+            int[] settled = new int[numNodes];
+            long[] below = new long[numNodes];
+            for (int i = 0; i < SAMPLE_TREES && numNodes > 0; i++) {
+                int source = random.nextInt(numNodes);
+                addDescendants(graph, source, parent, settled, below, score);
+                addDescendants(reverse, source, parent, settled, below, score);
+            }
+            long[] keys = new long[numNodes];
+            for (int v = 0; v < numNodes; v++) {
+                keys[v] = (Integer.MAX_VALUE - Math.min(score[v], Integer.MAX_VALUE)) << 32 | v; // descending score
+            }
+            Arrays.sort(keys);
+            this.order = new int[numNodes];
+            this.rank = new int[numNodes];
+            for (int k = 0; k < numNodes; k++) {
+                order[k] = (int) keys[k];
+                rank[order[k]] = k;
+            }
+
+            outHubs = new int[numNodes][];
+            outDists = new int[numNodes][];
+            outSize = new int[numNodes];
+            inHubs = new int[numNodes][];
+            inDists = new int[numNodes][];
+            inSize = new int[numNodes];
+            for (int v = 0; v < numNodes; v++) {
+                outHubs[v] = new int[2];
+                outDists[v] = new int[2];
+                inHubs[v] = new int[2];
+                inDists[v] = new int[2];
+            }
+
+            hubDist = new long[numNodes];
+            Arrays.fill(hubDist, ShortestPathSearch.UNREACHABLE);
+        }
+
+        // Grow a shortest-path tree from source and add every node's number of
+        // descendants in it to its score
+        private void addDescendants(GraphView view, int source, int[] parent, int[] settled,
+                                    long[] below, long[] score) {
+            if (++epoch == 0) {
+                Arrays.fill(stamp, 0);
+                epoch = 1;
+            }
+            EdgeCursor cursor = view.newCursor();
+            heap.clear();
+            stamp[source] = epoch;
+            dist[source] = 0;
+            parent[source] = -1;
+            heap.insertOrDecrease(source, 0);
+            int count = 0;
+            while (!heap.isEmpty()) {
+                int u = heap.poll();
+                settled[count++] = u;
+                below[u] = 0;
+                cursor.reset(u);
+                while (cursor.next()) {
+                    int v = cursor.getTo();
+                    long nd = dist[u] + cursor.getWeight();
+                    if (stamp[v] != epoch) {
+                        stamp[v] = epoch;
+                    } else if (nd >= dist[v]) {
+                        continue;
+                    }
+                    dist[v] = nd;
+                    parent[v] = u;
+                    heap.insertOrDecrease(v, nd);
+                }
+            }
+            // Children are settled after their parents
+            for (int i = count - 1; i > 0; i--) {
+                int v = settled[i];
+                below[parent[v]] += below[v] + 1;
+                score[v] += below[v];
+            }
+            score[source] += below[source];
+        }
+
+        HubLabeling build() {
+            for (int k = 0; k < numNodes; k++) {
+                int h = order[k];
+                // Forward from h: h is a hub of the in-labels it reaches
+                search(graph, h, k, outHubs[h], outDists[h], outSize[h], inHubs, inDists, inSize);
+                // Backward to h: h is a hub of the out-labels that reach it
+                search(reverse, h, k, inHubs[h], inDists[h], inSize[h], outHubs, outDists, outSize);
+            }
+
+            int[] outOffsets = offsets(outSize);
+            int[] inOffsets = offsets(inSize);
+            return new HubLabeling(outOffsets, flatten(outHubs, outSize, outOffsets),
+                    flatten(outDists, outSize, outOffsets), inOffsets,
+                    flatten(inHubs, inSize, inOffsets), flatten(inDists, inSize, inOffsets));
+        }
+
+        // Pruned Dijkstra from hub h (rank k) over view. A node v reached at distance d is
+        // pruned if h's own label (the given side) and v's label (the other side) already
+        // give a distance of at most d; otherwise (k, d) is appended to v's label.
+        private void search(GraphView view, int h, int k, int[] ownHubs, int[] ownDists, int ownSize,
+                            int[][] hubs, int[][] dists, int[] size) {
+            for (int i = 0; i < ownSize; i++) hubDist[ownHubs[i]] = ownDists[i];
+            if (++epoch == 0) {
+                Arrays.fill(stamp, 0);
+                epoch = 1;
+            }
+            EdgeCursor cursor = view.newCursor();
+            heap.clear();
+            stamp[h] = epoch;
+            dist[h] = 0;
+            heap.insertOrDecrease(h, 0);
+
+            while (!heap.isEmpty()) {
+                int v = heap.poll();
+                long d = dist[v];
+                if (covered(hubs[v], dists[v], size[v], d)) continue;
+                if (d > Integer.MAX_VALUE) {
+                    throw new IllegalArgumentException("Distance " + d + " from hub " + h + " does not fit in a label");
+                }
+                append(hubs, dists, size, v, k, (int) d);
+
+                cursor.reset(v);
+                while (cursor.next()) {
+                    int w = cursor.getTo();
+                    if (rank[w] < k) continue; // earlier hubs already cover every path through them
+                    long nd = d + cursor.getWeight();
+                    if (stamp[w] != epoch) {
+                        stamp[w] = epoch;
+                    } else if (nd >= dist[w]) {
+                        continue;
+                    }
+                    dist[w] = nd;
+                    heap.insertOrDecrease(w, nd);
+                }
+            }
+            for (int i = 0; i < ownSize; i++) hubDist[ownHubs[i]] = ShortestPathSearch.UNREACHABLE;
+        }
+
+        // Whether the labels so far connect the current hub and a node within d
+        private boolean covered(int[] hubs, int[] dists, int size, long d) {
+            for (int i = 0; i < size; i++) {
+                long via = hubDist[hubs[i]];
+                if (via != ShortestPathSearch.UNREACHABLE && via + dists[i] <= d) return true;
+            }
+            return false;
+        }
+
+        private static void append(int[][] hubs, int[][] dists, int[] size, int v, int hub, int d) {
+            int n = size[v];
+            if (n == hubs[v].length) {
+                hubs[v] = Arrays.copyOf(hubs[v], n * 2);
+                dists[v] = Arrays.copyOf(dists[v], n * 2);
+            }
+            hubs[v][n] = hub;
+            dists[v][n] = d;
+            size[v] = n + 1;
+        }
+
+        private int[] offsets(int[] size) {
+            int[] offsets = new int[numNodes + 1];
+            for (int v = 0; v < numNodes; v++) {
+                long end = (long) offsets[v] + size[v];
+                if (end > Integer.MAX_VALUE) throw new IllegalArgumentException("Labels exceed 2^31 entries");
+                offsets[v + 1] = (int) end;
+            }
+            return offsets;
+        }
+
+        private int[] flatten(int[][] labels, int[] size, int[] offsets) {
+            int[] flat = new int[offsets[numNodes]];
+            for (int v = 0; v < numNodes; v++) {
+                System.arraycopy(labels[v], 0, flat, offsets[v], size[v]);
+            }
+            return flat;
+        }
+    }
+}
@@ -0,0 +1,140 @@
+import java.util.Arrays;
+
+/**
+ * Compressed set of non-negative ints in the style of a Roaring bitmap.
+ *
+ * Values are grouped by their upper 16 bits into containers. A container with
+ * few values keeps its lower 16 bits in a sorted char array; once it holds
+ * more than {@link #ARRAY_LIMIT} values it switches to a 65536-bit bitmap
+ * (8 KiB), which is smaller at that density and answers membership with a
+ * single bit test.
+ */
+public final class IntBitmap {
+
+    // Beyond this many values a sorted char array is larger than a bitmap
+    static final int ARRAY_LIMIT = 4096;
+
+    private char[] keys = new char[4];
+    private char[][] arrays = new char[4][];
+    private long[][] bitmaps = new long[4][];
+    private int[] cardinalities = new int[4];
+    private int numContainers;
+    private int size;
+
+    /**
+     * Add a value to the set.
+     *
+     * @param value value to add
+     * @return true if the value was not already present
+     */
+    public boolean add(int value) {
+        char high = (char) (value >>> 16);
+        char low = (char) value;
+
+        int c = Arrays.binarySearch(keys, 0, numContainers, high);
+        if (c < 0) {
+            c = -c - 1;
+            insertContainer(c, high);
+        }
+
+        long[] bitmap = bitmaps[c];
+        if (bitmap != null) {
+            long mask = 1L << low;
+            if ((bitmap[low >>> 6] & mask) != 0) return false;
+            bitmap[low >>> 6] |= mask;
+        } else {
+            char[] array = arrays[c];
+            int card = cardinalities[c];
+            int i = Arrays.binarySearch(array, 0, card, low);
+            if (i >= 0) return false;
+            i = -i - 1;
+
+            if (card == ARRAY_LIMIT) {
+                toBitmap(c);
+                bitmaps[c][low >>> 6] |= 1L << low;
+            } else {
+                if (card == array.length) {
+                    array = Arrays.copyOf(array, Math.min(ARRAY_LIMIT, card * 2));
+                    arrays[c] = array;
+                }
+                System.arraycopy(array, i, array, i + 1, card - i);
+                array[i] = low;
+            }
+        }
+
+        cardinalities[c]++;
+        size++;
+        return true;
+    }
+
+    /**
+     * Check whether a value is in the set.
+     *
+     * @param value value to look up
+     * @return true if present
+     */
+    public boolean contains(int value) {
+        int c = Arrays.binarySearch(keys, 0, numContainers, (char) (value >>> 16));
+        if (c < 0) return false;
+
+        char low = (char) value;
+        long[] bitmap = bitmaps[c];
+        if (bitmap != null) {
+            return (bitmap[low >>> 6] & (1L << low)) != 0;
+        }
+        return Arrays.binarySearch(arrays[c], 0, cardinalities[c], low) >= 0;
+    }
+
+    /**
+     * Return the number of values in the set.
+     *
+     * @return set size
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Approximate memory used by the containers.
+     *
+     * @return size in bytes of the container payloads
+     */
+    public long getSizeInBytes() {
+        long bytes = 0;
+        for (int c = 0; c < numContainers; c++) {
+            bytes += bitmaps[c] != null ? 8192 : (long) arrays[c].length * Character.BYTES;
+        }
+        return bytes;
+    }
+
+    private void insertContainer(int c, char high) {
+        if (numContainers == keys.length) {
+            int capacity = numContainers * 2;
+            keys = Arrays.copyOf(keys, capacity);
+            arrays = Arrays.copyOf(arrays, capacity);
+            bitmaps = Arrays.copyOf(bitmaps, capacity);
+            cardinalities = Arrays.copyOf(cardinalities, capacity);
+        }
+        int tail = numContainers - c;
+        System.arraycopy(keys, c, keys, c + 1, tail);
+        System.arraycopy(arrays, c, arrays, c + 1, tail);
+        System.arraycopy(bitmaps, c, bitmaps, c + 1, tail);
+        System.arraycopy(cardinalities, c, cardinalities, c + 1, tail);
+
+        keys[c] = high;
+        arrays[c] = new char[4];
+        bitmaps[c] = null;
+        cardinalities[c] = 0;
+        numContainers++;
+    }
+
+    private void toBitmap(int c) {
+        long[] bitmap = new long[1024];
+        char[] array = arrays[c];
+        for (int i = 0; i < cardinalities[c]; i++) {
+            bitmap[array[i] >>> 6] |= 1L << array[i];
+        }
+        bitmaps[c] = bitmap;
+        arrays[c] = null;
+    }
+}
@@ -0,0 +1,132 @@
+import java.util.Arrays;
+
+/**
+ * Indexed d-ary min-heap of node ids with long priorities.
+ *
+ * The heap lives in parallel int/long arrays and a node-to-slot index, so
+ * inserting, decreasing a key and polling the minimum allocate nothing. A
+ * fanout of 4 keeps the tree shallow and the children of a slot in one cache
+ * line, which usually beats a binary heap for Dijkstra-style workloads.
+ */
+public final class IntDaryHeap {
+
+    private static final int ARITY = 4;
+    private static final int ABSENT = -1;
+
+    private final int[] nodes;
+    private final long[] keys;
+    private final int[] slot; // node -> heap slot, ABSENT if not in the heap
+    private int size;
+
+    /**
+     * Create an empty heap for node ids 0..capacity-1.
+     *
+     * @param capacity number of distinct node ids
+     */
+    public IntDaryHeap(int capacity) {
+        nodes = new int[capacity];
+        keys = new long[capacity];
+        slot = new int[capacity];
+        Arrays.fill(slot, ABSENT);
+    }
+
+    /**
+     * Check whether the heap is empty.
+     *
+     * @return true if no nodes are queued
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Check whether a node is currently queued.
+     *
+     * @param node node id
+     * @return true if the node is in the heap
+     */
+    public boolean contains(int node) {
+        return slot[node] != ABSENT;
+    }
+
+    /**
+     * Insert a node, or lower its key if it is already queued with a larger one.
+     *
+     * @param node node id
+     * @param key priority (smaller comes first)
+     */
+    public void insertOrDecrease(int node, long key) {
+        int i = slot[node];
+        if (i == ABSENT) {
+            i = size++;
+        } else if (key >= keys[i]) {
+            return;
+        }
+        siftUp(i, node, key);
+    }
+
+    /**
+     * Return the smallest key without removing it.
+     *
+     * @return smallest key in the heap
+     */
+    public long peekKey() {
+        return keys[0];
+    }
+
+    /**
+     * Remove and return the node with the smallest key.
+     *
+     * @return node id
+     */
+    public int poll() {
+        int min = nodes[0];
+        slot[min] = ABSENT;
+        if (--size > 0) {
+            siftDown(0, nodes[size], keys[size]);
+        }
+        return min;
+    }
+
+    /**
+     * Remove every node, in O(size).
+     */
+    public void clear() {
+        for (int i = 0; i < size; i++) slot[nodes[i]] = ABSENT;
+        size = 0;
+    }
+
+    // Move the hole at i up until key fits, then place node there
+    private void siftUp(int i, int node, long key) {
+        while (i > 0) {
+            int p = (i - 1) / ARITY;
+            if (keys[p] <= key) break;
+            place(i, nodes[p], keys[p]);
+            i = p;
+        }
+        place(i, node, key);
+    }
+
+    // Move the hole at i down until key fits, then place node there
+    private void siftDown(int i, int node, long key) {
+        while (true) {
+            int first = i * ARITY + 1;
+            if (first >= size) break;
+
+            int best = first;
+            for (int c = first + 1, end = Math.min(first + ARITY, size); c < end; c++) {
+                if (keys[c] < keys[best]) best = c;
+            }
+            if (keys[best] >= key) break;
+            place(i, nodes[best], keys[best]);
+            i = best;
+        }
+        place(i, node, key);
+    }
+
+    private void place(int i, int node, long key) {
+        nodes[i] = node;
+        keys[i] = key;
+        slot[node] = i;
+    }
+}
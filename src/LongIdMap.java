@@ -0,0 +1,129 @@
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Dictionary between external 64-bit node identifiers and the dense indices
+ * 0..size()-1 used by {@link Graph}.
+ *
+ * Lookups use a primitive open-addressing hash table (parallel long/int
+ * arrays, linear probing), so no Long or Integer objects are created per node.
+ * Dense ids are handed out in order of first appearance.
+ */
+public final class LongIdMap {
+
+    private static final int FREE = -1;
+
+    private long[] keys;
+    private int[] values;   // dense id per slot, FREE if unused
+    private long[] external; // dense id -> external id
+    private int size;
+
+    /**
+     * Construct an empty map.
+     */
+    public LongIdMap() {
+        this(16);
+    }
+
+    /**
+     * Construct an empty map sized for the expected number of ids.
+     *
+     * @param expectedSize expected number of distinct ids
+     */
+    public LongIdMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(8, expectedSize) * 2 - 1) << 1;
+        keys = new long[capacity];
+        values = new int[capacity];
+        Arrays.fill(values, FREE);
+        external = new long[Math.max(8, expectedSize)];
+    }
+
+    /**
+     * Return the dense id of an external id, assigning the next free one if the
+     * external id has not been seen before.
+     *
+     * @param id external node identifier
+     * @return dense node index
+     */
+    public int getOrAssign(long id) {
+        int slot = find(id);
+        if (values[slot] != FREE) return values[slot];
+
+        if (size == external.length) external = Arrays.copyOf(external, size * 2);
+        external[size] = id;
+        keys[slot] = id;
+        values[slot] = size;
+        size++;
+        if (size * 2 > keys.length) rehash();
+        return size - 1;
+    }
+
+    /**
+     * Return the dense id of an external id.
+     *
+     * @param id external node identifier
+     * @return dense node index, or -1 if the id is unknown
+     */
+    public int get(long id) {
+        return values[find(id)];
+    }
+
+    /**
+     * Return the external id of a dense node index.
+     *
+     * @param node dense node index
+     * @return external node identifier
+     */
+    public long toExternal(int node) {
+        if (node >= size) throw new IndexOutOfBoundsException("Unknown node " + node);
+        return external[node];
+    }
+
+    /**
+     * Translate a path or cycle of dense node indices to external ids.
+     *
+     * @param nodes dense node indices (may be null)
+     * @return external identifiers, or null if nodes is null
+     */
+    public long[] toExternal(List<Integer> nodes) {
+        if (nodes == null) return null;
+        long[] result = new long[nodes.size()];
+        for (int i = 0; i < result.length; i++) result[i] = toExternal(nodes.get(i));
+        return result;
+    }
+
+    /**
+     * Return the number of distinct ids seen so far.
+     *
+     * @return number of assigned dense ids
+     */
+    public int size() {
+        return size;
+    }
+
+    // Slot holding id, or the free slot where it would be inserted
+    private int find(long id) {
+        int mask = keys.length - 1;
+        int slot = hash(id) & mask;
+        while (values[slot] != FREE && keys[slot] != id) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private static int hash(long id) {
+        long h = id * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    private void rehash() {
+        keys = new long[keys.length * 2];
+        values = new int[keys.length];
+        Arrays.fill(values, FREE);
+        for (int i = 0; i < size; i++) {
+            int slot = find(external[i]);
+            keys[slot] = external[i];
+            values[slot] = i;
+        }
+    }
+}
@@ -11,6 +11,7 @@ import java.io.File;
  * - display the current graph
  * - find a path between two vertices and display its cost
  * - detect and display a cycle if one exists
+ * - find a minimum-cost path between two vertices and display its cost
  * - exit the program
  *
  * Before generating a new graph the program saves the previous graph and any
@@ -40,6 +41,7 @@ public class Main {
             System.out.println("3. Find a Path");
             System.out.println("4. Detect Cycle");
             System.out.println("5. Exit");
+            System.out.println("6. Find Cheapest Path");
 
             int choice = sc.nextInt();
 
@@ -107,6 +109,26 @@ public class Main {
                     }
                     break;
 
+                case 6:
+                    if (graph == null) {
+                        System.out.println("Generate a graph first.");
+                        break;
+                    }
+                    System.out.print("Start: "); int from = sc.nextInt();
+                    System.out.print("End: ");   int to = sc.nextInt();
+
+                    List<Integer> cheapest = graph.findCheapestPath(from, to);
+                    lastPath = cheapest; // track last path (may be null)
+
+                    if (cheapest == null) {
+                        System.out.println("No path found.");
+                    }
+                    else {
+                        System.out.println("Path: " + cheapest);
+                        System.out.println("Cost: " + graph.getCheapestCost(from, to));
+                    }
+                    break;
+
                 case 5:
                     System.exit(0);
             }
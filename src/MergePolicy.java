@@ -0,0 +1,39 @@
+/**
+ * How {@link Graph#simplify(MergePolicy)} combines the weights of parallel edges
+ * (several edges with the same source and destination) into a single edge.
+ */
+public enum MergePolicy {
+
+    /** Keep the smallest weight. */
+    MIN {
+        @Override
+        public int merge(int a, int b) {
+            return Math.min(a, b);
+        }
+    },
+
+    /** Keep the largest weight. */
+    MAX {
+        @Override
+        public int merge(int a, int b) {
+            return Math.max(a, b);
+        }
+    },
+
+    /** Add the weights together. */
+    SUM {
+        @Override
+        public int merge(int a, int b) {
+            return a + b;
+        }
+    };
+
+    /**
+     * Combine the weights of two parallel edges.
+     *
+     * @param a weight of the first edge
+     * @param b weight of the second edge
+     * @return weight of the merged edge
+     */
+    public abstract int merge(int a, int b);
+}
@@ -0,0 +1,318 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Immutable directed, weighted graph whose CSR arrays live outside the Java heap.
+ *
+ * The layout is the same as {@link CsrGraph} (offsets, targets, weights), but
+ * each array is held in direct {@link ByteBuffer}s, so a graph with hundreds of
+ * millions of edges adds almost nothing to the heap and nothing for the garbage
+ * collector to trace. Arrays larger than a single buffer can address are split
+ * into fixed-size chunks.
+ * <p>
+ * A graph can also be written to a binary CSR file with {@link #write} and
+ * reopened with {@link #map(String)}, which memory-maps the file instead of
+ * parsing it: opening is constant time, pages are loaded on first access, and
+ * several processes mapping the same file share the operating system's page
+ * cache. The file layout (all values little-endian 32-bit ints) is:
+ * <pre>
+ *     magic, version, numNodes, numEdges
+ *     offsets[numNodes + 1]
+ *     targets[numEdges]
+ *     weights[numEdges]
+ * </pre>
+ */
+public final class OffHeapGraph implements GraphView {
+
+    private static final int MAGIC = 0x48505247; // "GRPH" when read as little-endian bytes
+    private static final int VERSION = 1;
+    private static final int HEADER_INTS = 4;
+
+    // Ints per buffer chunk (2^28 ints = 1 GiB)
+    private static final int CHUNK_SHIFT = 28;
+    private static final int CHUNK_MASK = (1 << CHUNK_SHIFT) - 1;
+
+    private final int numNodes;
+    private final int numEdges;
+    private final IntArray offsets;
+    private final IntArray targets;
+    private final IntArray weights;
+
+    private OffHeapGraph(IntArray offsets, IntArray targets, IntArray weights) {
+        this.numNodes = offsets.length - 1;
+        this.numEdges = targets.length;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+    }
+
+    /**
+     * Copy any graph into off-heap storage, keeping the per-node edge order.
+     *
+     * @param graph source graph
+     * @return off-heap copy of the graph
+     */
+    public static OffHeapGraph copyOf(GraphView graph) {
+        int numNodes = graph.getNumNodes();
+        IntArray offsets = IntArray.allocate(numNodes + 1);
+        IntArray targets = IntArray.allocate(graph.getNumEdges());
+        IntArray weights = IntArray.allocate(graph.getNumEdges());
+
+        EdgeCursor c = graph.newCursor();
+        int pos = 0;
+        for (int i = 0; i < numNodes; i++) {
+            offsets.set(i, pos);
+            c.reset(i);
+            while (c.next()) {
+                targets.set(pos, c.getTo());
+                weights.set(pos, c.getWeight());
+                pos++;
+            }
+        }
+        offsets.set(numNodes, pos);
+
+        return new OffHeapGraph(offsets, targets, weights);
+    }
+
+    /**
+     * Write a graph to a binary CSR file that can later be opened with {@link #map(String)}.
+     *
+     * @param graph graph to write
+     * @param filename target filename
+     * @throws IOException if the file cannot be written
+     */
+    public static void write(GraphView graph, String filename) throws IOException {
+        int numNodes = graph.getNumNodes();
+        EdgeCursor c = graph.newCursor();
+
+        try (FileChannel ch = FileChannel.open(Paths.get(filename), StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer buf = ByteBuffer.allocate(1 << 16).order(ByteOrder.LITTLE_ENDIAN);
+            buf.putInt(MAGIC).putInt(VERSION).putInt(numNodes).putInt(graph.getNumEdges());
+
+            // offsets
+            int pos = 0;
+            for (int i = 0; i < numNodes; i++) {
+                buf = putInt(ch, buf, pos);
+                pos += graph.getDegree(i);
+            }
+            buf = putInt(ch, buf, pos);
+
+            // targets, then weights, in per-node edge order
+            for (int i = 0; i < numNodes; i++) {
+                c.reset(i);
+                while (c.next()) buf = putInt(ch, buf, c.getTo());
+            }
+            for (int i = 0; i < numNodes; i++) {
+                c.reset(i);
+                while (c.next()) buf = putInt(ch, buf, c.getWeight());
+            }
+
+            buf.flip();
+            while (buf.hasRemaining()) ch.write(buf);
+        }
+    }
+
+    // Append one int, flushing the buffer to the channel when it is full
+    private static ByteBuffer putInt(FileChannel ch, ByteBuffer buf, int value) throws IOException {
+        if (buf.remaining() < Integer.BYTES) {
+            buf.flip();
+            while (buf.hasRemaining()) ch.write(buf);
+            buf.clear();
+        }
+        return buf.putInt(value);
+    }
+
+    /**
+     * Open a binary CSR file written by {@link #write} by memory-mapping it.
+     * Nothing is read or copied up front; the mapping stays valid after this
+     * method returns and is released once the graph becomes unreachable.
+     *
+     * @param filename file to open
+     * @return read-only graph backed by the mapped file
+     * @throws IOException if the file cannot be read, is not a graph file, or its
+     *         length does not match the node and edge counts in its header
+     */
+    public static OffHeapGraph map(String filename) throws IOException {
+        try (FileChannel ch = FileChannel.open(Paths.get(filename), StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_INTS * Integer.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            while (header.hasRemaining()) {
+                if (ch.read(header) < 0) throw new IOException("Truncated graph file: " + filename);
+            }
+            header.flip();
+            if (header.getInt() != MAGIC || header.getInt() != VERSION) {
+                throw new IOException("Not a graph file: " + filename);
+            }
+            int numNodes = header.getInt();
+            int numEdges = header.getInt();
+            // offsets hold numNodes + 1 ints, so numNodes + 1 must fit in an int too
+            if (numNodes < 0 || numNodes == Integer.MAX_VALUE || numEdges < 0) {
+                throw new IOException("Corrupt graph file: " + filename + " (header claims "
+                        + numNodes + " nodes and " + numEdges + " edges)");
+            }
+
+            long expected = (HEADER_INTS + (numNodes + 1L) + 2L * numEdges) * Integer.BYTES;
+            long size = ch.size();
+            if (size != expected) {
+                throw new IOException((size < expected ? "Truncated" : "Corrupt") + " graph file: " + filename
+                        + " (" + size + " bytes, header implies " + expected + ")");
+            }
+
+            long position = HEADER_INTS * Integer.BYTES;
+            IntArray offsets = IntArray.map(ch, position, numNodes + 1);
+            position += (numNodes + 1L) * Integer.BYTES;
+            IntArray targets = IntArray.map(ch, position, numEdges);
+            position += (long) numEdges * Integer.BYTES;
+            IntArray weights = IntArray.map(ch, position, numEdges);
+
+            return new OffHeapGraph(offsets, targets, weights);
+        }
+    }
+
+    @Override
+    public int getNumNodes() {
+        return numNodes;
+    }
+
+    @Override
+    public int getNumEdges() {
+        return numEdges;
+    }
+
+    @Override
+    public int getDegree(int node) {
+        return offsets.get(node + 1) - offsets.get(node);
+    }
+
+    // Edge index accessors for traversals that keep int positions (see GraphSearch)
+    int getEdgeStart(int node) {
+        return offsets.get(node);
+    }
+
+    int getEdgeEnd(int node) {
+        return offsets.get(node + 1);
+    }
+
+    int getTarget(int edge) {
+        return targets.get(edge);
+    }
+
+    @Override
+    public EdgeCursor newCursor() {
+        return new Cursor();
+    }
+
+    /**
+     * Find any path from start to end using depth-first search (DFS).
+     *
+     * @param start start node index
+     * @param end destination node index
+     * @return list of node indices forming the path, or null if none exists
+     * @see Graph#findAnyPath(int, int)
+     */
+    public List<Integer> findAnyPath(int start, int end) {
+        return GraphSearch.findAnyPath(this, start, end);
+    }
+
+    /**
+     * Calculate the total cost (sum of weights) for the given path.
+     *
+     * @param path list of node indices in traversal order
+     * @return total edge weight sum for the path
+     * @see Graph#calculateCost(List)
+     */
+    public int calculateCost(List<Integer> path) {
+        return GraphSearch.calculateCost(this, path);
+    }
+
+    /**
+     * Detect any directed cycle in the graph.
+     *
+     * @return list of node indices forming a cycle, or null if the graph is acyclic
+     * @see Graph#findCycle()
+     */
+    public List<Integer> findCycle() {
+        return GraphSearch.findCycle(this);
+    }
+
+    // Cursor walking a contiguous slice of the targets/weights buffers
+    private final class Cursor implements EdgeCursor {
+        private int pos;
+        private int end;
+
+        @Override
+        public void reset(int node) {
+            pos = offsets.get(node) - 1;
+            end = offsets.get(node + 1);
+        }
+
+        @Override
+        public boolean next() {
+            return ++pos < end;
+        }
+
+        @Override
+        public int getTo() {
+            return targets.get(pos);
+        }
+
+        @Override
+        public int getWeight() {
+            return weights.get(pos);
+        }
+    }
+
+    // Int array spread over one or more direct buffers of at most 2^28 ints each
+    static final class IntArray {
+        final int length;
+        private final IntBuffer[] chunks;
+
+        IntArray(int length, IntBuffer[] chunks) {
+            this.length = length;
+            this.chunks = chunks;
+        }
+
+        static IntArray allocate(int length) {
+            IntBuffer[] chunks = new IntBuffer[numChunks(length)];
+            for (int i = 0; i < chunks.length; i++) {
+                chunks[i] = ByteBuffer.allocateDirect(chunkSize(length, i) * Integer.BYTES)
+                        .order(ByteOrder.LITTLE_ENDIAN)
+                        .asIntBuffer();
+            }
+            return new IntArray(length, chunks);
+        }
+
+        static IntArray map(FileChannel ch, long position, int length) throws IOException {
+            IntBuffer[] chunks = new IntBuffer[numChunks(length)];
+            for (int i = 0; i < chunks.length; i++) {
+                long start = position + ((long) i << CHUNK_SHIFT) * Integer.BYTES;
+                chunks[i] = ch.map(FileChannel.MapMode.READ_ONLY, start, (long) chunkSize(length, i) * Integer.BYTES)
+                        .order(ByteOrder.LITTLE_ENDIAN)
+                        .asIntBuffer();
+            }
+            return new IntArray(length, chunks);
+        }
+
+        private static int numChunks(int length) {
+            return (int) (((long) length + CHUNK_MASK) >>> CHUNK_SHIFT);
+        }
+
+        private static int chunkSize(int length, int chunk) {
+            return Math.min(CHUNK_MASK + 1, length - (chunk << CHUNK_SHIFT));
+        }
+
+        int get(int index) {
+            return chunks[index >>> CHUNK_SHIFT].get(index & CHUNK_MASK);
+        }
+
+        void set(int index, int value) {
+            chunks[index >>> CHUNK_SHIFT].put(index & CHUNK_MASK, value);
+        }
+    }
+}
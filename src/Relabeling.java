@@ -0,0 +1,285 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Renumbers the nodes of a graph to improve memory locality during traversals.
+ *
+ * A relabeling is a permutation of node ids together with the renumbered graph
+ * (as a {@link CsrGraph}). Orderings that place nodes visited together next to
+ * each other keep their CSR slices close in memory, so DFS/BFS-style passes hit
+ * the CPU cache more often. Each node keeps its outgoing edges in the original
+ * order. The query methods take and return original node ids, so the
+ * renumbering is invisible to callers.
+ * <p>
+ * Available orderings:
+ * <ul>
+ *     <li>{@link #byDegree} - total degree, descending (hubs first)</li>
+ *     <li>{@link #bfsOrder} - breadth-first discovery order</li>
+ *     <li>{@link #reverseCuthillMcKee} - Reverse Cuthill-McKee, which keeps neighbors close in the ordering</li>
+ * </ul>
+ * The BFS-based orderings ignore edge direction.
+ */
+public final class Relabeling {
+
+    private final int[] newId; // original id -> new id
+    private final int[] oldId; // new id -> original id
+    private final CsrGraph graph;
+
+    private Relabeling(int[] oldId, CsrGraph graph) {
+        this.oldId = oldId;
+        this.newId = new int[oldId.length];
+        for (int i = 0; i < oldId.length; i++) {
+            newId[oldId[i]] = i;
+        }
+        this.graph = graph;
+    }
+
+    /**
+     * Renumber a graph with an explicit order.
+     *
+     * @param g graph to renumber
+     * @param order order[i] is the original id of the node that becomes node i;
+     *              must be a permutation of 0..numNodes-1
+     * @return the relabeling
+     * @throws IllegalArgumentException if order is not a permutation of the nodes
+     */
+    public static Relabeling of(GraphView g, int[] order) {
+        int numNodes = g.getNumNodes();
+        if (order.length != numNodes) {
+            throw new IllegalArgumentException("Order has " + order.length + " entries, graph has " + numNodes + " nodes");
+        }
+        boolean[] seen = new boolean[numNodes];
+        for (int v : order) {
+            if (v < 0 || v >= numNodes || seen[v]) {
+                throw new IllegalArgumentException("Order is not a permutation: " + v);
+            }
+            seen[v] = true;
+        }
+
+        int[] oldId = order.clone();
+        int[] map = new int[numNodes];
+        for (int i = 0; i < numNodes; i++) map[oldId[i]] = i;
+
+        int[] offsets = new int[numNodes + 1];
+        for (int i = 0; i < numNodes; i++) {
+            offsets[i + 1] = offsets[i] + g.getDegree(oldId[i]);
+        }
+        int[] targets = new int[offsets[numNodes]];
+        int[] weights = new int[offsets[numNodes]];
+        EdgeCursor c = g.newCursor();
+        for (int i = 0; i < numNodes; i++) {
+            int pos = offsets[i];
+            c.reset(oldId[i]);
+            while (c.next()) {
+                targets[pos] = map[c.getTo()];
+                weights[pos] = c.getWeight();
+                pos++;
+            }
+        }
+
+        return new Relabeling(oldId, new CsrGraph(offsets, targets, weights));
+    }
+
+    /**
+     * Order nodes by total (in + out) degree, highest first; ties keep id order.
+     *
+     * @param g graph to renumber
+     * @return the relabeling
+     */
+    public static Relabeling byDegree(GraphView g) {
+        int numNodes = g.getNumNodes();
+        int[] total = totalDegrees(g);
+
+        // Negated degree in the high half sorts descending by degree, then ascending by id
+        long[] keys = new long[numNodes];
+        for (int v = 0; v < numNodes; v++) {
+            keys[v] = ((long) -total[v] << 32) | v;
+        }
+        Arrays.sort(keys);
+
+        int[] order = new int[numNodes];
+        for (int i = 0; i < numNodes; i++) order[i] = (int) keys[i];
+        return of(g, order);
+    }
+
+    /**
+     * Order nodes by breadth-first discovery, ignoring edge direction. Each
+     * component is started from its lowest-numbered node.
+     *
+     * @param g graph to renumber
+     * @return the relabeling
+     */
+    public static Relabeling bfsOrder(GraphView g) {
+        return of(g, bfs(g, false));
+    }
+
+    /**
+     * Order nodes with Reverse Cuthill-McKee, ignoring edge direction: each
+     * component is searched breadth-first from a minimum-degree node, visiting
+     * neighbors by ascending degree, and the final order is reversed.
+     *
+     * @param g graph to renumber
+     * @return the relabeling
+     */
+    public static Relabeling reverseCuthillMcKee(GraphView g) {
+        int[] order = bfs(g, true);
+        for (int i = 0, j = order.length - 1; i < j; i++, j--) {
+            int t = order[i];
+            order[i] = order[j];
+            order[j] = t;
+        }
+        return of(g, order);
+    }
+
+    // Undirected BFS over all components; byDegree picks RCM start nodes and neighbor order
+    private static int[] bfs(GraphView g, boolean byDegree) {
+        int numNodes = g.getNumNodes();
+        CsrGraph in = CsrGraph.transposeOf(g);
+        int[] total = totalDegrees(g);
+
+        int[] starts = new int[numNodes];
+        for (int v = 0; v < numNodes; v++) starts[v] = v;
+        if (byDegree) {
+            long[] keys = new long[numNodes];
+            for (int v = 0; v < numNodes; v++) keys[v] = ((long) total[v] << 32) | v;
+            Arrays.sort(keys);
+            for (int v = 0; v < numNodes; v++) starts[v] = (int) keys[v];
+        }
+
+        int[] order = new int[numNodes];
+        boolean[] visited = new boolean[numNodes];
+        long[] scratch = new long[16];
+        EdgeCursor out = g.newCursor();
+        EdgeCursor back = in.newCursor();
+        int head = 0;
+        int tail = 0;
+
+        for (int s : starts) {
+            if (visited[s]) continue;
+            visited[s] = true;
+            order[tail++] = s;
+
+            while (head < tail) {
+                int u = order[head++];
+                if (scratch.length < total[u]) scratch = new long[Math.max(total[u], scratch.length * 2)];
+
+                // Collect unvisited neighbors in both directions
+                out.reset(u);
+                back.reset(u);
+                int n = collect(out, visited, byDegree ? total : null, scratch, 0);
+                n = collect(back, visited, byDegree ? total : null, scratch, n);
+                if (byDegree) Arrays.sort(scratch, 0, n);
+
+                for (int i = 0; i < n; i++) {
+                    order[tail++] = (int) scratch[i];
+                }
+            }
+        }
+        return order;
+    }
+
+    // Mark and append the cursor's unvisited targets, keyed by degree when degrees are given
+    private static int collect(EdgeCursor c, boolean[] visited, int[] degrees, long[] out, int n) {
+        while (c.next()) {
+            int v = c.getTo();
+            if (!visited[v]) {
+                visited[v] = true;
+                out[n++] = degrees != null ? ((long) degrees[v] << 32) | v : v;
+            }
+        }
+        return n;
+    }
+
+    private static int[] totalDegrees(GraphView g) {
+        int numNodes = g.getNumNodes();
+        int[] total = new int[numNodes];
+        EdgeCursor c = g.newCursor();
+        for (int u = 0; u < numNodes; u++) {
+            total[u] += g.getDegree(u);
+            c.reset(u);
+            while (c.next()) total[c.getTo()]++;
+        }
+        return total;
+    }
+
+    /**
+     * Get the renumbered graph. Its node ids are the new ids.
+     *
+     * @return renumbered CSR graph
+     */
+    public CsrGraph getGraph() {
+        return graph;
+    }
+
+    /**
+     * Translate an original node id to its new id.
+     *
+     * @param original original node index
+     * @return node index in the renumbered graph
+     */
+    public int toNewId(int original) {
+        return newId[original];
+    }
+
+    /**
+     * Translate a new node id back to the original id.
+     *
+     * @param id node index in the renumbered graph
+     * @return original node index
+     */
+    public int toOriginalId(int id) {
+        return oldId[id];
+    }
+
+    /**
+     * Translate a list of new node ids (a path or cycle) back to original ids.
+     *
+     * @param nodes node indices in the renumbered graph (may be null)
+     * @return original node indices, or null if nodes is null
+     */
+    public List<Integer> toOriginal(List<Integer> nodes) {
+        if (nodes == null) return null;
+        List<Integer> result = new ArrayList<>(nodes.size());
+        for (int v : nodes) result.add(oldId[v]);
+        return result;
+    }
+
+    /**
+     * Find any path between two original nodes using DFS on the renumbered graph.
+     * Edge order per node is preserved, so the path equals the one the original
+     * graph would return.
+     *
+     * @param start original start node index
+     * @param end original destination node index
+     * @return original node indices forming the path, or null if none exists
+     */
+    public List<Integer> findAnyPath(int start, int end) {
+        return toOriginal(graph.findAnyPath(newId[start], newId[end]));
+    }
+
+    /**
+     * Detect any directed cycle using the renumbered graph. DFS starts from the
+     * new node order, so the cycle reported may differ from the original graph's.
+     *
+     * @return original node indices forming a cycle, or null if the graph is acyclic
+     */
+    public List<Integer> findCycle() {
+        return toOriginal(graph.findCycle());
+    }
+
+    /**
+     * Calculate the total cost of a path given in original node ids.
+     *
+     * @param path original node indices in traversal order
+     * @return total edge weight sum for the path
+     */
+    public int calculateCost(List<Integer> path) {
+        int cost = 0;
+        for (int i = 0; i < path.size() - 1; i++) {
+            int e = graph.findEdge(newId[path.get(i)], newId[path.get(i + 1)]);
+            if (e >= 0) cost += graph.getWeight(e);
+        }
+        return cost;
+    }
+}
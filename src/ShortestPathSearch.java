@@ -0,0 +1,164 @@
+import java.util.Arrays;
+
+/**
+ * Base class for single-source cheapest-path searches over a {@link GraphView}
+ * with non-negative edge weights.
+ *
+ * An instance owns all of its scratch state (distance and parent labels plus
+ * whatever queue the subclass uses) and reuses it across queries; labels from
+ * an earlier query are invalidated by bumping a version stamp rather than
+ * clearing the arrays, so a query only touches the nodes it actually reaches.
+ * Create one instance per graph and thread and reuse it for repeated queries.
+ * Distances are accumulated as longs and cannot overflow.
+ * <p>
+ * {@link #create(GraphView)} picks the best implementation for a graph:
+ * {@link DialSearch} when all weights are small integers, otherwise
+ * {@link DijkstraSearch}.
+ */
+public abstract class ShortestPathSearch {
+
+    /** Distance reported for nodes that were not reached. */
+    public static final long UNREACHABLE = Long.MAX_VALUE;
+
+    /** Largest maximum edge weight for which {@link #create(GraphView)} uses buckets. */
+    public static final int BUCKET_MAX_WEIGHT = 1024;
+
+    protected final GraphView graph;
+    protected final EdgeCursor cursor;
+    protected final long[] dist;
+    protected final int[] parent;
+    protected final int[] stamp; // dist/parent of v are valid iff stamp[v] == epoch
+    protected int epoch;
+    protected final int maxWeight;
+
+    /**
+     * Prepare a search over a graph. The graph must not gain nodes while this
+     * instance is in use.
+     *
+     * @param graph graph to search
+     * @throws IllegalArgumentException if the graph has a negative edge weight
+     */
+    protected ShortestPathSearch(GraphView graph) {
+        this(graph, maxWeightOf(graph));
+    }
+
+    // For callers that already validated the graph and know its maximum weight
+    ShortestPathSearch(GraphView graph, int maxWeight) {
+        int numNodes = graph.getNumNodes();
+        this.graph = graph;
+        this.cursor = graph.newCursor();
+        this.dist = new long[numNodes];
+        this.parent = new int[numNodes];
+        this.stamp = new int[numNodes];
+        this.maxWeight = maxWeight;
+    }
+
+    /**
+     * Scan every edge of a graph once, checking that no weight is negative.
+     *
+     * @param graph graph to scan
+     * @return largest edge weight, 0 if the graph has no edges
+     * @throws IllegalArgumentException if the graph has a negative edge weight
+     */
+    static int maxWeightOf(GraphView graph) {
+        EdgeCursor c = graph.newCursor();
+        int max = 0;
+        for (int u = 0; u < graph.getNumNodes(); u++) {
+            c.reset(u);
+            while (c.next()) {
+                if (c.getWeight() < 0) {
+                    throw new IllegalArgumentException("Negative edge weight " + c.getWeight()
+                            + " on " + u + " -> " + c.getTo());
+                }
+                max = Math.max(max, c.getWeight());
+            }
+        }
+        return max;
+    }
+
+    /**
+     * Create the most suitable search for a graph: a bucket queue if every
+     * weight is at most {@link #BUCKET_MAX_WEIGHT}, a heap otherwise.
+     *
+     * @param graph graph to search
+     * @return a reusable cheapest-path search
+     * @throws IllegalArgumentException if the graph has a negative edge weight
+     */
+    public static ShortestPathSearch create(GraphView graph) {
+        int maxWeight = maxWeightOf(graph);
+        if (maxWeight <= BUCKET_MAX_WEIGHT) {
+            return new DialSearch(graph, maxWeight);
+        }
+        return new DijkstraSearch(graph, maxWeight);
+    }
+
+    /**
+     * Find a minimum-cost path from start to end. The search stops as soon as
+     * end is settled. The cost of the path is available afterwards from
+     * {@link #getDistance(int)}.
+     *
+     * @param start start node index
+     * @param end destination node index
+     * @return node indices of a cheapest path (start first), or null if end is unreachable
+     */
+    public int[] findCheapestPath(int start, int end) {
+        begin();
+        run(start, end);
+        if (stamp[end] != epoch) return null;
+
+        int length = 1;
+        for (int v = end; v != start; v = parent[v]) length++;
+        int[] path = new int[length];
+        for (int v = end, i = length - 1; i >= 0; v = parent[v], i--) {
+            path[i] = v;
+        }
+        return path;
+    }
+
+    /**
+     * Compute the cost of the cheapest path from a source to every node.
+     *
+     * @param source start node index
+     * @return distance per node, {@link #UNREACHABLE} for nodes that cannot be reached
+     */
+    public long[] distancesFrom(int source) {
+        begin();
+        run(source, -1);
+        long[] result = new long[dist.length];
+        for (int v = 0; v < result.length; v++) {
+            result[v] = stamp[v] == epoch ? dist[v] : UNREACHABLE;
+        }
+        return result;
+    }
+
+    /**
+     * Distance label of a node from the most recent query. After
+     * {@link #findCheapestPath(int, int)} it is exact for the destination and every
+     * node settled before it; other reached nodes hold an upper bound.
+     *
+     * @param node node index
+     * @return distance, or {@link #UNREACHABLE} if the last query did not reach the node
+     */
+    public long getDistance(int node) {
+        return stamp[node] == epoch ? dist[node] : UNREACHABLE;
+    }
+
+    /**
+     * Settle nodes in distance order from source until target is settled, or
+     * until every reachable node is settled if target is -1. Implementations
+     * label a node by setting stamp[v] = epoch together with dist[v] and
+     * parent[v]; the source must be labeled with distance 0 and parent -1.
+     *
+     * @param source start node index
+     * @param target node to stop at, or -1
+     */
+    protected abstract void run(int source, int target);
+
+    // Start a new query: every label from earlier queries becomes stale
+    private void begin() {
+        if (++epoch == 0) { // stamps wrapped around: forget them all
+            Arrays.fill(stamp, 0);
+            epoch = 1;
+        }
+    }
+}
@@ -0,0 +1,126 @@
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Dictionary between external string node names and the dense indices
+ * 0..size()-1 used by {@link Graph}.
+ *
+ * Names are interned: each distinct name is stored once, and {@link #toExternal(int)}
+ * always returns that same instance. Lookups use a primitive open-addressing
+ * table (a String[] of keys next to an int[] of ids) rather than a
+ * {@code HashMap<String, Integer>}, so no boxed values or entry objects are created.
+ */
+public final class StringIdMap {
+
+    private static final int FREE = -1;
+
+    private String[] keys;
+    private int[] values;    // dense id per slot, FREE if unused
+    private String[] names;  // dense id -> interned name
+    private int size;
+
+    /**
+     * Construct an empty map.
+     */
+    public StringIdMap() {
+        this(16);
+    }
+
+    /**
+     * Construct an empty map sized for the expected number of names.
+     *
+     * @param expectedSize expected number of distinct names
+     */
+    public StringIdMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(8, expectedSize) * 2 - 1) << 1;
+        keys = new String[capacity];
+        values = new int[capacity];
+        Arrays.fill(values, FREE);
+        names = new String[Math.max(8, expectedSize)];
+    }
+
+    /**
+     * Return the dense id of a name, assigning the next free one if the name has
+     * not been seen before.
+     *
+     * @param name external node name
+     * @return dense node index
+     */
+    public int intern(String name) {
+        int slot = find(name);
+        if (values[slot] != FREE) return values[slot];
+
+        if (size == names.length) names = Arrays.copyOf(names, size * 2);
+        names[size] = name;
+        keys[slot] = name;
+        values[slot] = size;
+        size++;
+        if (size * 2 > keys.length) rehash();
+        return size - 1;
+    }
+
+    /**
+     * Return the dense id of a name.
+     *
+     * @param name external node name
+     * @return dense node index, or -1 if the name is unknown
+     */
+    public int get(String name) {
+        return values[find(name)];
+    }
+
+    /**
+     * Return the interned name of a dense node index.
+     *
+     * @param node dense node index
+     * @return external node name
+     */
+    public String toExternal(int node) {
+        if (node >= size) throw new IndexOutOfBoundsException("Unknown node " + node);
+        return names[node];
+    }
+
+    /**
+     * Translate a path or cycle of dense node indices to names.
+     *
+     * @param nodes dense node indices (may be null)
+     * @return external names, or null if nodes is null
+     */
+    public String[] toExternal(List<Integer> nodes) {
+        if (nodes == null) return null;
+        String[] result = new String[nodes.size()];
+        for (int i = 0; i < result.length; i++) result[i] = toExternal(nodes.get(i));
+        return result;
+    }
+
+    /**
+     * Return the number of distinct names seen so far.
+     *
+     * @return number of assigned dense ids
+     */
+    public int size() {
+        return size;
+    }
+
+    // Slot holding name, or the free slot where it would be inserted
+    private int find(String name) {
+        int mask = keys.length - 1;
+        int h = name.hashCode() * 0x9E3779B9;
+        int slot = (h ^ (h >>> 16)) & mask;
+        while (values[slot] != FREE && !keys[slot].equals(name)) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void rehash() {
+        keys = new String[keys.length * 2];
+        values = new int[keys.length];
+        Arrays.fill(values, FREE);
+        for (int i = 0; i < size; i++) {
+            int slot = find(names[i]);
+            keys[slot] = names[i];
+            values[slot] = i;
+        }
+    }
+}
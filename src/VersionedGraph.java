@@ -0,0 +1,109 @@
+/**
+ * Graph that can be read by many threads while a writer keeps adding edges.
+ *
+ * Writers mutate a private {@link Graph} and call {@link #publish()} to make
+ * their changes visible. Publishing freezes the graph into an immutable
+ * {@link CsrGraph} and swaps it in through a single volatile write. Readers
+ * call {@link #snapshot()} and query the returned snapshot without locking.
+ * A snapshot never changes, so a reader sees one consistent version no matter
+ * how many edges are added or published after it took the snapshot.
+ * <p>
+ * Mutations and publishing are serialized on this object; reads never block.
+ */
+public final class VersionedGraph {
+
+    private final Graph builder; // guarded by this
+    private boolean dirty;       // guarded by this
+    private volatile Snapshot current;
+
+    /**
+     * Construct a versioned graph with the specified number of nodes and no
+     * edges. Version 0 (the empty graph) is published immediately.
+     *
+     * @param numNodes number of nodes (indexed 0..numNodes-1)
+     */
+    public VersionedGraph(int numNodes) {
+        builder = new Graph(numNodes);
+        current = new Snapshot(0, builder.freeze());
+    }
+
+    /**
+     * Add a directed edge. It becomes visible to readers with the next {@link #publish()}.
+     *
+     * @param from source node index
+     * @param to destination node index
+     * @param weight edge weight (cost)
+     */
+    public synchronized void addEdge(int from, int to, int weight) {
+        builder.addEdge(from, to, weight);
+        dirty = true;
+    }
+
+    /**
+     * Append a new node without edges. It becomes visible to readers with the
+     * next {@link #publish()}.
+     *
+     * @return index of the new node
+     */
+    public synchronized int addNode() {
+        dirty = true;
+        return builder.addNode();
+    }
+
+    /**
+     * Publish all changes made so far as a new snapshot. If nothing changed
+     * since the last publish, the current snapshot is returned unchanged.
+     * Publishing copies the whole graph (O(V + E)).
+     *
+     * @return the snapshot now visible to readers
+     */
+    public synchronized Snapshot publish() {
+        if (dirty) {
+            current = new Snapshot(current.version + 1, builder.freeze());
+            dirty = false;
+        }
+        return current;
+    }
+
+    /**
+     * Return the latest published snapshot. Never blocks.
+     *
+     * @return current snapshot
+     */
+    public Snapshot snapshot() {
+        return current;
+    }
+
+    /**
+     * Immutable, versioned state of a {@link VersionedGraph}.
+     */
+    public static final class Snapshot {
+        private final long version;
+        private final CsrGraph graph;
+
+        private Snapshot(long version, CsrGraph graph) {
+            this.version = version;
+            this.graph = graph;
+        }
+
+        /**
+         * Version number; 0 for the initial empty graph, incremented on every
+         * publish that had changes.
+         *
+         * @return snapshot version
+         */
+        public long getVersion() {
+            return version;
+        }
+
+        /**
+         * The graph as of this version. It is immutable and safe to query from
+         * any number of threads.
+         *
+         * @return immutable graph
+         */
+        public CsrGraph getGraph() {
+            return graph;
+        }
+    }
+}